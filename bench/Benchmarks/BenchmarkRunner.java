@@ -0,0 +1,31 @@
+package Benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+/**
+ * Runs the benchmarks whose names match the given regular expressions (all of them by default) with the GC profiler
+ * attached, so every result reports allocation rate next to throughput and latency percentiles.
+ * Results are also written to jmh-result.json to be compared against a baseline run.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        if (args.length == 0)
+            builder.include("Benchmarks\\..*");
+        for (String pattern : args) {
+            builder.include(pattern);
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,105 @@
+package Benchmarks;
+
+import Code.GaloisField;
+import Code.Polynomial;
+import Code.RSCodec;
+import Code.ReedSolomon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a single codeword of length n with k = n / 2, through both polynomial encoders and
+ * decoders of ReedSolomon and through the precomputed RSCodec.
+ * The received words have the given number of symbol errors, spread evenly over the codeword.
+ * GF7 is left out since it only has codes of length n <= 7.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"929", "65537"})
+    public int prime;
+
+    @Param({"8", "16", "32"})
+    public int n;
+
+    @Param({"0", "1", "2"})
+    public int errors;
+
+    private GaloisField F;
+    private int k;
+    private Polynomial msg;
+    private Polynomial received;
+    private Polynomial receivedSystematic;
+    private RSCodec codec;
+    private int[] data;
+    private int[] codeword;
+    private int[] receivedCodeword;
+    private int[] decoded;
+
+    @Setup
+    public void setUp() {
+        F = new GaloisField(prime);
+        k = n / 2;
+        Random random = new Random(42);
+        data = new int[k];
+        for (int i = 0; i < k; i++) {
+            data[i] = random.nextInt(prime);
+        }
+        msg = new Polynomial(data.clone(), F);
+        codec = new RSCodec(F, n, k);
+        codeword = new int[n];
+        decoded = new int[k];
+
+        int[] symbols = ReedSolomon.RSEncoder(msg, n).get(1).getCoefficients().clone();
+        int[] systematic = ReedSolomon.RSEncoder_L(msg, n).get(1).getCoefficients().clone();
+        receivedCodeword = new int[n];
+        codec.encode(data, receivedCodeword);
+        for (int e = 0; e < errors; e++) {
+            int i = e * n / Math.max(1, errors);
+            symbols[i] = F.add(symbols[i], 1);
+            systematic[i] = F.add(systematic[i], 1);
+            receivedCodeword[i] = F.add(receivedCodeword[i], 1);
+        }
+        received = new Polynomial(symbols, F);
+        receivedSystematic = new Polynomial(systematic, F);
+    }
+
+    @Benchmark
+    public List<Polynomial> RSEncoder() {
+        return ReedSolomon.RSEncoder(msg, n);
+    }
+
+    @Benchmark
+    public List<Polynomial> RSEncoder_L() {
+        return ReedSolomon.RSEncoder_L(msg, n);
+    }
+
+    @Benchmark
+    public Polynomial uniqueDecoder() {
+        return ReedSolomon.uniqueDecoder(received, k);
+    }
+
+    @Benchmark
+    public Polynomial uniqueDecoder_L() {
+        return ReedSolomon.uniqueDecoder_L(receivedSystematic, k);
+    }
+
+    @Benchmark
+    public int[] codecEncode() {
+        codec.encode(data, codeword);
+        return codeword;
+    }
+
+    @Benchmark
+    public int codecDecode() {
+        return codec.decode(receivedCodeword, decoded);
+    }
+}
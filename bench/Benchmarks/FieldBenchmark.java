@@ -0,0 +1,71 @@
+package Benchmarks;
+
+import Code.GaloisField;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of the single symbol operations of GaloisField.
+ * Operands cycle through a fixed table of random non zero symbols so that every field size sees the same access
+ * pattern. The 31 bit prime is the largest field, where products only fit in a long.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldBenchmark {
+
+    private static final int OPERANDS = 1024;
+
+    @Param({"7", "929", "65537", "2147483647"})
+    public int prime;
+
+    private GaloisField F;
+    private int[] x;
+    private int[] y;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        F = new GaloisField(prime);
+        Random random = new Random(42);
+        x = new int[OPERANDS];
+        y = new int[OPERANDS];
+        for (int i = 0; i < OPERANDS; i++) {
+            x[i] = 1 + random.nextInt(prime - 1);
+            y[i] = 1 + random.nextInt(prime - 1);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (OPERANDS - 1);
+        return index;
+    }
+
+    @Benchmark
+    public int add() {
+        int i = next();
+        return F.add(x[i], y[i]);
+    }
+
+    @Benchmark
+    public int multiply() {
+        int i = next();
+        return F.multiply(x[i], y[i]);
+    }
+
+    @Benchmark
+    public int div() {
+        int i = next();
+        return F.div(x[i], y[i]);
+    }
+
+    @Benchmark
+    public int modInverse() {
+        return F.modInverse(x[next()]);
+    }
+}
@@ -0,0 +1,90 @@
+package Benchmarks;
+
+import Code.GaloisField;
+import Code.Interpolation;
+import Code.Polynomial;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polynomial arithmetic and lagrange interpolation for random dense polynomials of the given degree.
+ * The divisor of mod and div has half the degree of the dividend, interpolation goes through degree + 1 points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolynomialBenchmark {
+
+    @Param({"7", "929", "65537", "2147483647"})
+    public int prime;
+
+    @Param({"4", "16", "64"})
+    public int degree;
+
+    private GaloisField F;
+    private Polynomial a;
+    private Polynomial b;
+    private Polynomial divisor;
+    private int[][] coordinates;
+    private int x;
+
+    @Setup
+    public void setUp() {
+        F = new GaloisField(prime);
+        Random random = new Random(42);
+        a = randomPolynomial(degree, random);
+        b = randomPolynomial(degree, random);
+        divisor = randomPolynomial(degree / 2, random);
+        x = 1 + random.nextInt(prime - 1);
+        // Interpolation needs distinct points, which a small field may not have enough of
+        int points = Math.min(degree + 1, prime);
+        coordinates = new int[points][];
+        for (int i = 0; i < points; i++) {
+            coordinates[i] = new int[]{i, random.nextInt(prime)};
+        }
+    }
+
+    private Polynomial randomPolynomial(int deg, Random random) {
+        int[] coeffs = new int[deg + 1];
+        for (int i = 0; i < deg; i++) {
+            coeffs[i] = random.nextInt(prime);
+        }
+        coeffs[deg] = 1 + random.nextInt(prime - 1);
+        return new Polynomial(coeffs, F);
+    }
+
+    @Benchmark
+    public Polynomial add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Polynomial multiply() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public Polynomial mod() {
+        return a.mod(divisor);
+    }
+
+    @Benchmark
+    public Polynomial div() {
+        return a.div(divisor);
+    }
+
+    @Benchmark
+    public int evaluatePolynomial() {
+        return a.evaluatePolynomial(x);
+    }
+
+    @Benchmark
+    public int[] lagrangeInterpolation() {
+        return Interpolation.lagrangeInterpolation(coordinates, F);
+    }
+}
@@ -0,0 +1,375 @@
+package Code;
+
+import java.util.Arrays;
+
+public class BivariatePolynomial {
+
+    /**
+     * coefficients[j][i] is the coefficient of x^i * y^j, every row may be shorter than the x degree.
+     */
+    private int[][] coefficients;
+    private final GaloisField F;
+
+    /**
+     * Class to represent polynomials in Fq[x, y].
+     * @param coefficients coefficients[j][i] is the coefficient of x^i * y^j, copied and reduced modulo q
+     * @param field the galois field Fq
+     */
+    public BivariatePolynomial(int[][] coefficients, GaloisField field) {
+        this.F = field;
+        this.coefficients = new int[Math.max(1, coefficients.length)][];
+        for (int j = 0; j < this.coefficients.length; j++) {
+            int[] row = j < coefficients.length ? coefficients[j] : new int[0];
+            this.coefficients[j] = new int[row.length];
+            for (int i = 0; i < row.length; i++) {
+                this.coefficients[j][i] = field.mod(row[i]);
+            }
+        }
+    }
+
+    private BivariatePolynomial(GaloisField field, int[][] coefficients) {
+        this.F = field;
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Returns the polynomial y^j.
+     */
+    public static BivariatePolynomial yPower(int j, GaloisField field) {
+        int[][] coefficients = new int[j + 1][0];
+        coefficients[j] = new int[]{1};
+        return new BivariatePolynomial(field, coefficients);
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    /**
+     * Returns the coefficient of x^i * y^j.
+     */
+    public int getCoefficient(int i, int j) {
+        if (j < 0 || j >= coefficients.length || i < 0 || i >= coefficients[j].length)
+            return 0;
+        return coefficients[j][i];
+    }
+
+    /**
+     * Returns the degree of the polynomial in y.
+     * @return the largest j with a non zero coefficient of y^j, 0 for the zero polynomial
+     */
+    public int yDegree() {
+        for (int j = coefficients.length - 1; j > 0; j--) {
+            if (!isZero(coefficients[j]))
+                return j;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the degree of the polynomial in x.
+     * @return the largest i with a non zero coefficient of x^i, 0 for the zero polynomial
+     */
+    public int xDegree() {
+        int degree = 0;
+        for (int[] row : coefficients) {
+            for (int i = row.length - 1; i > degree; i--) {
+                if (row[i] != 0) {
+                    degree = i;
+                    break;
+                }
+            }
+        }
+        return degree;
+    }
+
+    public boolean isZero() {
+        for (int[] row : coefficients) {
+            if (!isZero(row))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isZero(int[] row) {
+        for (int c : row) {
+            if (c != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the (1, yWeight) weighted degree of the polynomial, the largest i + yWeight * j over its non zero terms
+     * x^i * y^j.
+     * @return the weighted degree, or -1 for the zero polynomial
+     */
+    public int weightedDegree(int yWeight) {
+        int degree = -1;
+        for (int j = 0; j < coefficients.length; j++) {
+            int[] row = coefficients[j];
+            for (int i = row.length - 1; i >= 0; i--) {
+                if (row[i] != 0) {
+                    degree = Math.max(degree, i + yWeight * j);
+                    break;
+                }
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Returns the result of evaluating this polynomial at (x, y).
+     */
+    public int evaluate(int x, int y) {
+        return hasseDerivative(0, 0, x, y);
+    }
+
+    /**
+     * Returns the (r, s)'th Hasse derivative of this polynomial at (a, b), which is the coefficient of x^r * y^s in
+     * Q(x + a, y + b): the sum of C(i, r) * C(j, s) * q_ij * a^(i-r) * b^(j-s) over all terms.
+     * A polynomial has a zero of multiplicity m at (a, b) if all its Hasse derivatives with r + s < m vanish there.
+     * @param r order of the derivative in x
+     * @param s order of the derivative in y
+     * @param a x coordinate
+     * @param b y coordinate
+     * @return the Hasse derivative at (a, b)
+     */
+    public int hasseDerivative(int r, int s, int a, int b) {
+        a = F.mod(a);
+        b = F.mod(b);
+        int inverseOfRFactorial = F.modInverse(factorial(r));
+        int inverseOfSFactorial = F.modInverse(factorial(s));
+        int res = 0;
+        for (int j = coefficients.length - 1; j >= s; j--) {
+            int[] row = coefficients[j];
+            // Horner's rule over the x derivative of row j at a
+            int rowValue = 0;
+            for (int i = row.length - 1; i >= r; i--) {
+                rowValue = F.multiply(rowValue, a);
+                if (row[i] != 0)
+                    rowValue = F.add(rowValue, F.multiply(fallingFactorial(i, r), row[i]));
+            }
+            rowValue = F.multiply(rowValue, inverseOfRFactorial);
+            // and over the y derivative at b
+            res = F.multiply(res, b);
+            if (rowValue != 0)
+                res = F.add(res, F.multiply(F.multiply(fallingFactorial(j, s), inverseOfSFactorial), rowValue));
+        }
+        return res;
+    }
+
+    /**
+     * Returns i * (i-1) * ... * (i-r+1) modulo q, which is C(i, r) * r!.
+     */
+    private int fallingFactorial(int i, int r) {
+        int res = 1;
+        for (int t = 0; t < r; t++) {
+            res = F.multiply(res, i - t);
+        }
+        return res;
+    }
+
+    /**
+     * Returns r! modulo q.
+     * @pre r < q
+     */
+    private int factorial(int r) {
+        return fallingFactorial(r, r);
+    }
+
+    /**
+     * Returns the univariate polynomial Q(0, y), whose coefficient j is the constant term of row j.
+     */
+    public Polynomial atXZero() {
+        int[] res = new int[yDegree() + 1];
+        for (int j = 0; j < res.length; j++) {
+            res[j] = coefficients[j].length == 0 ? 0 : coefficients[j][0];
+        }
+        return Polynomial.trusted(res, F);
+    }
+
+    /**
+     * Returns the univariate polynomial Q(x, f(x)).
+     * @param f a polynomial in x over the same field
+     * @return the result of substituting f for y
+     */
+    public Polynomial substitute(Polynomial f) {
+        Polynomial res = Polynomial.ZERO(F);
+        for (int j = coefficients.length - 1; j >= 0; j--) {
+            res = res.multiply(f).add(new Polynomial(coefficients[j], F));
+        }
+        return Polynomial.trimmed(res.getCoefficients(), F);
+    }
+
+    /**
+     * Multiplies this polynomial by (x - a) in place.
+     */
+    void multiplyByLinearX(int a) {
+        a = F.mod(a);
+        for (int j = 0; j < coefficients.length; j++) {
+            int[] row = coefficients[j];
+            if (isZero(row))
+                continue;
+            int[] res = new int[row.length + 1];
+            for (int i = 0; i < row.length; i++) {
+                res[i + 1] = F.add(res[i + 1], row[i]);
+                res[i] = F.subtract(res[i], F.multiply(a, row[i]));
+            }
+            coefficients[j] = res;
+        }
+    }
+
+    /**
+     * Sets this polynomial to c * this - d * other in place.
+     */
+    void combine(int c, BivariatePolynomial other, int d) {
+        if (other.coefficients.length > coefficients.length) {
+            int old = coefficients.length;
+            coefficients = Arrays.copyOf(coefficients, other.coefficients.length);
+            for (int j = old; j < coefficients.length; j++) {
+                coefficients[j] = new int[0];
+            }
+        }
+        for (int j = 0; j < coefficients.length; j++) {
+            int[] row = coefficients[j];
+            int[] otherRow = j < other.coefficients.length ? other.coefficients[j] : new int[0];
+            int[] res = row.length >= otherRow.length ? row : Arrays.copyOf(row, otherRow.length);
+            for (int i = 0; i < res.length; i++) {
+                int value = i < row.length ? F.multiply(c, row[i]) : 0;
+                if (i < otherRow.length)
+                    value = F.subtract(value, F.multiply(d, otherRow[i]));
+                res[i] = value;
+            }
+            coefficients[j] = res;
+        }
+    }
+
+    /**
+     * Returns Q(x, x * y + gamma) / x^t for the largest t such that x^t divides it, the step of the Roth-Ruckenstein
+     * root finder which strips the root gamma off the next coefficient of a y-root.
+     * Each term q_ij * x^i * (x * y + gamma)^j contributes C(j, l) * gamma^(j-l) * q_ij to the coefficient of
+     * x^(i+l) * y^l.
+     * @param gamma a root of Q(0, y)
+     * @return a new polynomial
+     */
+    public BivariatePolynomial shiftRoot(int gamma) {
+        int yDegree = yDegree();
+        int width = 0;
+        for (int j = 0; j <= yDegree; j++) {
+            width = Math.max(width, coefficients[j].length);
+        }
+        int[][] res = new int[yDegree + 1][width + yDegree];
+        int[] binomials = new int[yDegree + 1];
+        int[] inverses = new int[yDegree + 1];
+        for (int l = 1; l <= yDegree; l++) {
+            inverses[l] = F.modInverse(l);
+        }
+        for (int j = 0; j <= yDegree; j++) {
+            int[] row = coefficients[j];
+            if (isZero(row))
+                continue;
+            // binomials[l] = C(j, l), gammaPower = gamma^(j-l)
+            binomials[0] = 1;
+            for (int l = 1; l <= j; l++) {
+                binomials[l] = F.multiply(F.multiply(binomials[l - 1], j - l + 1), inverses[l]);
+            }
+            int gammaPower = 1;
+            for (int l = j; l >= 0; l--) {
+                int factor = F.multiply(binomials[l], gammaPower);
+                gammaPower = F.multiply(gammaPower, gamma);
+                if (factor == 0)
+                    continue;
+                for (int i = 0; i < row.length; i++) {
+                    res[l][i + l] = F.add(res[l][i + l], F.multiply(factor, row[i]));
+                }
+            }
+        }
+        return new BivariatePolynomial(F, res).divideByXPower();
+    }
+
+    /**
+     * Returns this polynomial divided by the largest power of x dividing it.
+     */
+    public BivariatePolynomial divideByXPower() {
+        int shift = Integer.MAX_VALUE;
+        for (int[] row : coefficients) {
+            for (int i = 0; i < row.length && i < shift; i++) {
+                if (row[i] != 0) {
+                    shift = i;
+                    break;
+                }
+            }
+        }
+        int[][] res = new int[coefficients.length][];
+        for (int j = 0; j < res.length; j++) {
+            int from = shift == Integer.MAX_VALUE ? 0 : Math.min(shift, coefficients[j].length);
+            res[j] = Arrays.copyOfRange(coefficients[j], from, coefficients[j].length);
+        }
+        return new BivariatePolynomial(F, res);
+    }
+
+    /**
+     * Returns a copy of this polynomial.
+     */
+    public BivariatePolynomial copy() {
+        int[][] res = new int[coefficients.length][];
+        for (int j = 0; j < res.length; j++) {
+            res[j] = coefficients[j].clone();
+        }
+        return new BivariatePolynomial(F, res);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder res = new StringBuilder();
+        for (int j = coefficients.length - 1; j >= 0; j--) {
+            for (int i = coefficients[j].length - 1; i >= 0; i--) {
+                int c = coefficients[j][i];
+                if (c == 0)
+                    continue;
+                if (res.length() > 0)
+                    res.append(" + ");
+                if (c != 1 || (i == 0 && j == 0))
+                    res.append(c);
+                if (i > 0)
+                    res.append(i > 1 ? "x^" + i : "x");
+                if (j > 0)
+                    res.append(j > 1 ? "y^" + j : "y");
+            }
+        }
+        return res.length() == 0 ? "0" : res.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        BivariatePolynomial that = (BivariatePolynomial) other;
+        if (!F.equals(that.F)) return false;
+        int rows = Math.max(coefficients.length, that.coefficients.length);
+        for (int j = 0; j < rows; j++) {
+            int columns = Math.max(j < coefficients.length ? coefficients[j].length : 0,
+                    j < that.coefficients.length ? that.coefficients[j].length : 0);
+            for (int i = 0; i < columns; i++) {
+                if (getCoefficient(i, j) != that.getCoefficient(i, j))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = F.hashCode();
+        for (int j = 0; j <= yDegree(); j++) {
+            int[] row = coefficients[j];
+            int length = row.length;
+            while (length > 0 && row[length - 1] == 0) {
+                length--;
+            }
+            h = 31 * h + Arrays.hashCode(Arrays.copyOf(row, length));
+        }
+        return h;
+    }
+}
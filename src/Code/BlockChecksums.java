@@ -0,0 +1,168 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32C;
+
+public final class BlockChecksums {
+
+    public static final int MAGIC = 0x5253434B; // "RSCK"
+    /**
+     * Number of symbols covered by every checksum unless chosen otherwise.
+     */
+    public static final int DEFAULT_BLOCK_SYMBOLS = 1 << 12;
+
+    private final int blockSymbols;
+    private final int[] checksums;
+
+    /**
+     * CRC32C checksums of consecutive blocks of blockSymbols symbols of a shard, the last block may be shorter.
+     * Blocks are counted in symbols rather than bytes so that block b covers the same codeword columns in data and
+     * parity shards, and a block which fails its checksum can be treated as an erasure of those columns instead of
+     * an error the decoder has to locate.
+     * @param blockSymbols number of symbols in a block, positive
+     * @param checksums checksum of every block
+     */
+    public BlockChecksums(int blockSymbols, int[] checksums) {
+        if (blockSymbols <= 0)
+            throw new IllegalArgumentException("Block size must be positive, got " + blockSymbols);
+        this.blockSymbols = blockSymbols;
+        this.checksums = checksums.clone();
+    }
+
+    /**
+     * Given a shard, returns the checksums of its blocks.
+     * @param shard the symbols of the shard between position and limit, left unchanged
+     * @param width number of bytes in a symbol of the shard
+     * @param blockSymbols number of symbols in a block
+     */
+    public static BlockChecksums compute(ByteBuffer shard, int width, int blockSymbols) {
+        int symbols = shard.remaining() / width;
+        int[] checksums = new int[blocks(symbols, blockSymbols)];
+        for (int b = 0; b < checksums.length; b++) {
+            checksums[b] = checksum(shard, width, blockSymbols, b);
+        }
+        return new BlockChecksums(blockSymbols, checksums);
+    }
+
+    /**
+     * Returns the number of blocks of a shard of the given number of symbols.
+     */
+    public static int blocks(long symbols, int blockSymbols) {
+        return (int) ((symbols + blockSymbols - 1) / blockSymbols);
+    }
+
+    private static int checksum(ByteBuffer shard, int width, int blockSymbols, int block) {
+        int from = block * blockSymbols * width;
+        int length = Math.min(blockSymbols * width, shard.remaining() - from);
+        CRC32C crc = new CRC32C();
+        crc.update(shard.slice(shard.position() + from, length));
+        return (int) crc.getValue();
+    }
+
+    public int blockSymbols() {
+        return this.blockSymbols;
+    }
+
+    /**
+     * Returns the number of blocks.
+     */
+    public int blocks() {
+        return checksums.length;
+    }
+
+    /**
+     * Returns the checksum of a block.
+     */
+    public int get(int block) {
+        return checksums[block];
+    }
+
+    /**
+     * Given a part of a shard, returns the blocks which don't match their checksums.
+     * @param shard symbols of the shard between position and limit, starting at the first symbol of firstBlock
+     * @param width number of bytes in a symbol of the shard
+     * @param firstBlock index of the block the buffer starts at
+     * @return the indices of the corrupt blocks among those the buffer covers
+     */
+    public BitSet verify(ByteBuffer shard, int width, int firstBlock) {
+        BitSet corrupt = new BitSet();
+        int covered = blocks(shard.remaining() / width, blockSymbols);
+        for (int b = 0; b < covered; b++) {
+            int block = firstBlock + b;
+            if (block >= checksums.length || checksum(shard, width, blockSymbols, b) != checksums[block])
+                corrupt.set(block);
+        }
+        return corrupt;
+    }
+
+    /**
+     * Returns the blocks of a whole shard which don't match their checksums, every block if the shard doesn't have
+     * the expected number of blocks.
+     */
+    public BitSet verify(ByteBuffer shard, int width) {
+        if (blocks(shard.remaining() / width, blockSymbols) != checksums.length) {
+            BitSet all = new BitSet();
+            all.set(0, Math.max(1, checksums.length));
+            return all;
+        }
+        return verify(shard, width, 0);
+    }
+
+    /**
+     * Returns the path of the checksum file stored alongside a shard file.
+     */
+    public static Path pathOf(Path shard) {
+        return shard.resolveSibling(shard.getFileName() + ".crc");
+    }
+
+    /**
+     * Writes the checksums to a file: MAGIC, block size and number of blocks followed by the checksums.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + checksums.length * Integer.BYTES);
+        buffer.putInt(MAGIC).putInt(blockSymbols).putInt(checksums.length);
+        buffer.asIntBuffer().put(checksums);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Reads checksums written by write(Path).
+     * @return the checksums, or null if there is no such file or it isn't a valid checksum file
+     */
+    public static BlockChecksums read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (buffer.remaining() < 3 * Integer.BYTES || buffer.getInt() != MAGIC)
+            return null;
+        int blockSymbols = buffer.getInt();
+        int blocks = buffer.getInt();
+        if (blockSymbols <= 0 || blocks < 0 || buffer.remaining() != (long) blocks * Integer.BYTES)
+            return null;
+        int[] checksums = new int[blocks];
+        buffer.asIntBuffer().get(checksums);
+        return new BlockChecksums(blockSymbols, checksums);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        BlockChecksums that = (BlockChecksums) other;
+        return blockSymbols == that.blockSymbols && Arrays.equals(checksums, that.checksums);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * blockSymbols + Arrays.hashCode(checksums);
+    }
+}
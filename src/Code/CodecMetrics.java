@@ -0,0 +1,250 @@
+package Code;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CodecMetrics implements CodecMetricsMXBean {
+
+    /**
+     * Metrics are only collected when the JVM is started with -Dreedsolomon.metrics=true.
+     * Being a static final constant, every guarded recording call is removed by the JIT compiler when disabled.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("reedsolomon.metrics");
+
+    public static final String OBJECT_NAME = "Code:type=CodecMetrics";
+
+    /**
+     * Metrics recorded by the encoders and decoders of ReedSolomon and RSCodec.
+     */
+    public static final CodecMetrics GLOBAL = new CodecMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                GLOBAL.register(new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                // Metrics are still recorded, only the JMX view is missing
+            }
+        }
+    }
+
+    /**
+     * Stages of encoding and decoding which are timed separately.
+     */
+    public enum Stage {
+        SETUP, MATRIX_BUILD, ELIMINATION, POLYNOMIAL_DIVISION, INTERPOLATION, ENCODE
+    }
+
+    private final LongAdder encodes = new LongAdder();
+    private final LongAdder decodes = new LongAdder();
+    private final LongAdder cleanWords = new LongAdder();
+    private final LongAdder correctedWords = new LongAdder();
+    private final LongAdder failedWords = new LongAdder();
+    private final LongAdder correctedSymbols = new LongAdder();
+    private final Histogram errorsPerWord = new Histogram();
+    private final EnumMap<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+
+    public CodecMetrics() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Histogram());
+        }
+    }
+
+    /**
+     * Returns the start time of a timed stage.
+     * @return System.nanoTime() if metrics are enabled, 0 otherwise
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since start into the global histogram of the given stage.
+     * @param stage the stage which just completed
+     * @param start time the stage started at, as returned by start() or a previous call to stage
+     * @return the current time, which is the start time of the following stage
+     */
+    public static long stage(Stage stage, long start) {
+        if (!ENABLED)
+            return 0;
+        long now = System.nanoTime();
+        GLOBAL.recordStage(stage, now - start);
+        return now;
+    }
+
+    /**
+     * Records encoded words in the global metrics.
+     * @param words number of codewords encoded
+     */
+    public static void encoded(int words) {
+        if (ENABLED)
+            GLOBAL.recordEncode(words);
+    }
+
+    /**
+     * Records a decoded word in the global metrics.
+     * @param corrected number of corrected symbols, 0 for a clean word or -1 for a word which couldn't be decoded
+     */
+    public static void decoded(int corrected) {
+        if (ENABLED)
+            GLOBAL.recordDecode(corrected);
+    }
+
+    /**
+     * Records words found to be clean in bulk, without going through the decoder, in the global metrics.
+     * @param words number of clean codewords
+     */
+    public static void decodedClean(int words) {
+        if (ENABLED)
+            GLOBAL.recordClean(words);
+    }
+
+    public void recordEncode(int words) {
+        encodes.add(words);
+    }
+
+    /**
+     * Records a decoded word.
+     * @param corrected number of corrected symbols, 0 for a clean word or -1 for a word which couldn't be decoded
+     */
+    public void recordDecode(int corrected) {
+        decodes.increment();
+        if (corrected < 0) {
+            failedWords.increment();
+            return;
+        }
+        if (corrected == 0) {
+            cleanWords.increment();
+        } else {
+            correctedWords.increment();
+            correctedSymbols.add(corrected);
+            errorsPerWord.record(corrected);
+        }
+    }
+
+    public void recordClean(int words) {
+        decodes.add(words);
+        cleanWords.add(words);
+    }
+
+    public void recordStage(Stage stage, long nanos) {
+        stages.get(stage).record(nanos);
+    }
+
+    public Histogram getStageHistogram(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Returns the histogram of the number of errors in each corrected word.
+     */
+    public Histogram getErrorsPerWord() {
+        return errorsPerWord;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     * @param name object name to register under
+     * @throws JMException if the name is taken or invalid
+     */
+    public void register(ObjectName name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, name);
+    }
+
+    @Override
+    public long getEncodes() {
+        return encodes.sum();
+    }
+
+    @Override
+    public long getDecodes() {
+        return decodes.sum();
+    }
+
+    @Override
+    public long getCleanWords() {
+        return cleanWords.sum();
+    }
+
+    @Override
+    public long getCorrectedWords() {
+        return correctedWords.sum();
+    }
+
+    @Override
+    public long getFailedWords() {
+        return failedWords.sum();
+    }
+
+    @Override
+    public long getCorrectedSymbols() {
+        return correctedSymbols.sum();
+    }
+
+    @Override
+    public double getMeanErrorsPerCorrectedWord() {
+        long words = correctedWords.sum();
+        return words == 0 ? 0 : (double) correctedSymbols.sum() / words;
+    }
+
+    @Override
+    public long getMaxErrorsPerWord() {
+        return errorsPerWord.getMax();
+    }
+
+    @Override
+    public Map<String, Long> getStageCounts() {
+        Map<String, Long> res = new LinkedHashMap<>();
+        stages.forEach((stage, histogram) -> res.put(stage.name(), histogram.getCount()));
+        return res;
+    }
+
+    @Override
+    public Map<String, Double> getStageMeanNanos() {
+        Map<String, Double> res = new LinkedHashMap<>();
+        stages.forEach((stage, histogram) -> res.put(stage.name(), histogram.getMean()));
+        return res;
+    }
+
+    @Override
+    public Map<String, Long> getStageP50Nanos() {
+        return percentiles(50);
+    }
+
+    @Override
+    public Map<String, Long> getStageP99Nanos() {
+        return percentiles(99);
+    }
+
+    @Override
+    public Map<String, Long> getStageMaxNanos() {
+        Map<String, Long> res = new LinkedHashMap<>();
+        stages.forEach((stage, histogram) -> res.put(stage.name(), histogram.getMax()));
+        return res;
+    }
+
+    private Map<String, Long> percentiles(double percentile) {
+        Map<String, Long> res = new LinkedHashMap<>();
+        stages.forEach((stage, histogram) -> res.put(stage.name(), histogram.valueAtPercentile(percentile)));
+        return res;
+    }
+
+    @Override
+    public void reset() {
+        encodes.reset();
+        decodes.reset();
+        cleanWords.reset();
+        correctedWords.reset();
+        failedWords.reset();
+        correctedSymbols.reset();
+        errorsPerWord.reset();
+        stages.values().forEach(Histogram::reset);
+    }
+}
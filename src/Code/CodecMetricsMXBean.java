@@ -0,0 +1,37 @@
+package Code;
+
+import java.util.Map;
+
+/**
+ * JMX view of CodecMetrics, histogram maps are keyed by stage name and hold nanoseconds.
+ */
+public interface CodecMetricsMXBean {
+
+    long getEncodes();
+
+    long getDecodes();
+
+    long getCleanWords();
+
+    long getCorrectedWords();
+
+    long getFailedWords();
+
+    long getCorrectedSymbols();
+
+    double getMeanErrorsPerCorrectedWord();
+
+    long getMaxErrorsPerWord();
+
+    Map<String, Long> getStageCounts();
+
+    Map<String, Double> getStageMeanNanos();
+
+    Map<String, Long> getStageP50Nanos();
+
+    Map<String, Long> getStageP99Nanos();
+
+    Map<String, Long> getStageMaxNanos();
+
+    void reset();
+}
@@ -0,0 +1,313 @@
+package Code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CodecService implements AutoCloseable {
+
+    /**
+     * Largest number of words encoded or decoded together unless chosen otherwise.
+     */
+    public static final int DEFAULT_MAX_BATCH = 256;
+    /**
+     * Longest time a request waits for its batch to fill unless chosen otherwise.
+     */
+    public static final long DEFAULT_MAX_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final ExecutorService workers;
+    private final boolean ownsWorkers;
+    private final ScheduledExecutorService timer;
+    private final Map<List<Integer>, RSCodec> codecs = new ConcurrentHashMap<>();
+    private final Map<RSCodec, Batcher> encoders = new ConcurrentHashMap<>();
+    private final Map<RSCodec, Batcher> decoders = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Encodes and decodes single words submitted by many concurrent callers in batches: requests for the same code
+     * are queued until maxBatch of them are pending or the oldest one waited maxDelay, then the whole batch is
+     * encoded column-wise with RSCodec.encodeStriped on a worker thread. Decoding batches check all words at once in
+     * the same way and only decode the words whose parity doesn't match one by one.
+     * A lone request thus waits at most maxDelay, while under load the cost of a call is amortised over the batch.
+     * Batches run on a pool with a thread per processor.
+     * @param maxBatch largest number of words in a batch, positive
+     * @param maxDelay longest time a request waits for its batch to fill
+     * @param unit unit of maxDelay
+     * @throws IllegalArgumentException if maxBatch isn't positive or maxDelay is negative
+     */
+    public CodecService(int maxBatch, long maxDelay, TimeUnit unit) throws IllegalArgumentException {
+        this(maxBatch, maxDelay, unit, newWorkers(), true);
+    }
+
+    /**
+     * Same as CodecService(DEFAULT_MAX_BATCH, DEFAULT_MAX_DELAY_NANOS, TimeUnit.NANOSECONDS).
+     */
+    public CodecService() {
+        this(DEFAULT_MAX_BATCH, DEFAULT_MAX_DELAY_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Same as CodecService(int, long, TimeUnit) running the batches on the given executor, which is not shut down by
+     * close().
+     */
+    public CodecService(int maxBatch, long maxDelay, TimeUnit unit, ExecutorService workers)
+            throws IllegalArgumentException {
+        this(maxBatch, maxDelay, unit, workers, false);
+    }
+
+    private CodecService(int maxBatch, long maxDelay, TimeUnit unit, ExecutorService workers, boolean ownsWorkers) {
+        if (maxBatch < 1)
+            throw new IllegalArgumentException("Batch size must be positive, got " + maxBatch);
+        if (maxDelay < 0)
+            throw new IllegalArgumentException("Batch delay must not be negative, got " + maxDelay);
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.workers = workers;
+        this.ownsWorkers = ownsWorkers;
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> daemon(task, "codec-service-timer"));
+    }
+
+    private static ExecutorService newWorkers() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                task -> daemon(task, "codec-service"));
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Returns the codec the service uses for the given code, RSCodec(F, n, k) created once and shared by all callers.
+     * @throws IllegalArgumentException if 0 < k < n <= p doesn't hold
+     */
+    public RSCodec codec(GaloisField F, int n, int k) throws IllegalArgumentException {
+        return codecs.computeIfAbsent(List.of(F.getPrime(), n, k), key -> new RSCodec(F, n, k));
+    }
+
+    /**
+     * Given a message of k symbols, returns a future of its codeword of n symbols under RSCodec(F, n, k).
+     * @pre foreach i, 0 <= data[i] < p
+     * @throws IllegalArgumentException if the message doesn't have k symbols
+     */
+    public CompletableFuture<int[]> encode(GaloisField F, int n, int k, int[] data) throws IllegalArgumentException {
+        return encode(codec(F, n, k), data);
+    }
+
+    /**
+     * Given a message of k symbols, returns a future of its codeword of n symbols, as written by codec.encode.
+     * @pre foreach i, 0 <= data[i] < p
+     * @throws IllegalArgumentException if the message doesn't have k symbols
+     */
+    public CompletableFuture<int[]> encode(RSCodec codec, int[] data) throws IllegalArgumentException {
+        if (data.length != codec.dimension())
+            throw new IllegalArgumentException("Expected " + codec.dimension() + " symbols, got " + data.length);
+        return encoders.computeIfAbsent(codec, c -> new Batcher(c, false)).submit(data.clone());
+    }
+
+    /**
+     * Given n received symbols, returns a future of the decoded message of k symbols under RSCodec(F, n, k).
+     * @throws IllegalArgumentException if the received word doesn't have n symbols
+     */
+    public CompletableFuture<int[]> decode(GaloisField F, int n, int k, int[] received)
+            throws IllegalArgumentException {
+        return decode(codec(F, n, k), received);
+    }
+
+    /**
+     * Given n received symbols, returns a future of the message of k symbols decoded by codec.decode. The future
+     * completes exceptionally with an ArithmeticException if the word is further than (n-k)/2 from any codeword.
+     * @throws IllegalArgumentException if the received word doesn't have n symbols
+     */
+    public CompletableFuture<int[]> decode(RSCodec codec, int[] received) throws IllegalArgumentException {
+        if (received.length != codec.length())
+            throw new IllegalArgumentException("Expected " + codec.length() + " symbols, got " + received.length);
+        return decoders.computeIfAbsent(codec, c -> new Batcher(c, true)).submit(received.clone());
+    }
+
+    /**
+     * Runs the pending batches, then stops accepting requests and shuts down the worker pool if the service created
+     * it. Batches already handed to the workers still complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Batcher batcher : encoders.values()) {
+            batcher.flush();
+        }
+        for (Batcher batcher : decoders.values()) {
+            batcher.flush();
+        }
+        timer.shutdownNow();
+        if (ownsWorkers)
+            workers.shutdown();
+    }
+
+    private static final class Request {
+        final int[] word;
+        final CompletableFuture<int[]> result = new CompletableFuture<>();
+
+        Request(int[] word) {
+            this.word = word;
+        }
+    }
+
+    /**
+     * Queue of the pending requests of one codec and direction.
+     */
+    private final class Batcher {
+        private final RSCodec codec;
+        private final boolean decode;
+        private List<Request> pending = new ArrayList<>();
+        private ScheduledFuture<?> deadline;
+
+        Batcher(RSCodec codec, boolean decode) {
+            this.codec = codec;
+            this.decode = decode;
+        }
+
+        CompletableFuture<int[]> submit(int[] word) {
+            Request request = new Request(word);
+            List<Request> full = null;
+            synchronized (this) {
+                if (closed)
+                    throw new RejectedExecutionException("Codec service is closed");
+                pending.add(request);
+                if (pending.size() >= maxBatch) {
+                    full = take();
+                } else if (pending.size() == 1) {
+                    deadline = timer.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            if (full != null)
+                dispatch(full);
+            return request.result;
+        }
+
+        /**
+         * Hands the pending requests to the workers, if any.
+         */
+        void flush() {
+            List<Request> batch;
+            synchronized (this) {
+                if (pending.isEmpty())
+                    return;
+                batch = take();
+            }
+            dispatch(batch);
+        }
+
+        private List<Request> take() {
+            List<Request> batch = pending;
+            pending = new ArrayList<>(Math.min(maxBatch, 64));
+            if (deadline != null) {
+                deadline.cancel(false);
+                deadline = null;
+            }
+            return batch;
+        }
+
+        private void dispatch(List<Request> batch) {
+            try {
+                workers.execute(() -> run(batch));
+            } catch (RejectedExecutionException e) {
+                for (Request request : batch) {
+                    request.result.completeExceptionally(e);
+                }
+            }
+        }
+
+        private void run(List<Request> batch) {
+            try {
+                if (decode)
+                    decodeBatch(codec, batch);
+                else
+                    encodeBatch(codec, batch);
+            } catch (RuntimeException e) {
+                for (Request request : batch) {
+                    request.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes the messages of a batch as the columns of k data rows.
+     */
+    private static void encodeBatch(RSCodec codec, List<Request> batch) {
+        int n = codec.length();
+        int k = codec.dimension();
+        int size = batch.size();
+        int[][] dataRows = transpose(batch, k);
+        int[][] parityRows = new int[n - k][size];
+        codec.encodeStriped(dataRows, parityRows, size);
+        CodecMetrics.encoded(size);
+        for (int j = 0; j < size; j++) {
+            int[] codeword = new int[n];
+            System.arraycopy(batch.get(j).word, 0, codeword, 0, k);
+            for (int r = 0; r < n - k; r++) {
+                codeword[k + r] = parityRows[r][j];
+            }
+            batch.get(j).result.complete(codeword);
+        }
+    }
+
+    /**
+     * Re-encodes the message symbols of a batch at once and decodes the words whose parity doesn't match one by one.
+     */
+    private static void decodeBatch(RSCodec codec, List<Request> batch) {
+        int n = codec.length();
+        int k = codec.dimension();
+        int size = batch.size();
+        int[][] dataRows = transpose(batch, k);
+        int[][] expectedRows = new int[n - k][size];
+        codec.encodeStriped(dataRows, expectedRows, size);
+        int cleanWords = 0;
+        for (int j = 0; j < size; j++) {
+            Request request = batch.get(j);
+            boolean clean = true;
+            for (int r = 0; r < n - k && clean; r++) {
+                clean = expectedRows[r][j] == request.word[k + r];
+            }
+            if (clean) {
+                cleanWords++;
+                request.result.complete(Arrays.copyOf(request.word, k));
+                continue;
+            }
+            int[] data = new int[k];
+            if (codec.decode(request.word, data) < 0)
+                request.result.completeExceptionally(
+                        new ArithmeticException("Received word is further than " + codec.maxErrors()
+                                + " symbols from any codeword"));
+            else
+                request.result.complete(data);
+        }
+        CodecMetrics.decodedClean(cleanWords);
+    }
+
+    /**
+     * Returns the first rows symbols of the words of a batch as rows, column j holding word j.
+     */
+    private static int[][] transpose(List<Request> batch, int rows) {
+        int[][] res = new int[rows][batch.size()];
+        for (int j = 0; j < batch.size(); j++) {
+            int[] word = batch.get(j).word;
+            for (int i = 0; i < rows; i++) {
+                res[i][j] = word[i];
+            }
+        }
+        return res;
+    }
+}
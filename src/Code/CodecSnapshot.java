@@ -0,0 +1,220 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+public class CodecSnapshot {
+
+    public static final int MAGIC = 0x5253534E; // "RSSN"
+    public static final int VERSION = 1;
+    /**
+     * magic, version, number of codecs, reserved (ints) followed by body length and CRC32C of the body (longs).
+     */
+    public static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+    /**
+     * prime, primitive element, n, k, kind of points, shift and generator of the points.
+     */
+    private static final int ENTRY_HEADER_INTS = 7;
+
+    private final IntBuffer body;
+    /**
+     * offsets[c] is the int offset of codec c in the body.
+     */
+    private final int[] offsets;
+
+    private CodecSnapshot(IntBuffer body, int[] offsets) {
+        this.body = body;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Writes everything precomputed for the given codecs to a snapshot file, so a later process can restore them with
+     * load(Path) instead of recomputing them: the primitive element of every field, the evaluation points, the
+     * parity matrix and the generator polynomial of every code.
+     * An entry holds prime, primitive element, n, k, the kind, shift and generator of the points, then the n points,
+     * the (n-k) x k parity matrix by rows and the n-k+1 coefficients of the generator polynomial, all big endian ints.
+     * @param path file to write
+     * @param codecs codecs to save
+     * @throws IOException if writing the file fails
+     */
+    public static void write(Path path, List<RSCodec> codecs) throws IOException {
+        int ints = 0;
+        for (RSCodec codec : codecs) {
+            ints += entryInts(codec.length(), codec.dimension());
+        }
+        ByteBuffer body = ByteBuffer.allocate(ints * Integer.BYTES);
+        IntBuffer out = body.asIntBuffer();
+        for (RSCodec codec : codecs) {
+            GaloisField F = codec.getField();
+            EvaluationPoints points = codec.getEvaluationPoints();
+            int n = codec.length();
+            int k = codec.dimension();
+            out.put(F.getPrime()).put(ReedSolomon.findPrimitiveElement(F)).put(n).put(k)
+                    .put(points.kind().ordinal()).put(points.shift()).put(points.generator());
+            out.put(points.toArray());
+            for (int[] row : codec.parityMatrix()) {
+                out.put(row);
+            }
+            Polynomial generator = ReedSolomon.computeGeneratorPolynomial(F, n, k);
+            for (int i = 0; i <= n - k; i++) {
+                out.put(generator.getCoefficient(i));
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(codecs.size()).putInt(0)
+                .putLong(body.capacity()).putLong(crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+
+    private static int entryInts(int n, int k) {
+        return ENTRY_HEADER_INTS + n + (n - k) * k + (n - k + 1);
+    }
+
+    /**
+     * Memory maps a snapshot written by write(Path, List) and validates it against the checksum in its header.
+     * The snapshot is read lazily, a codec is only materialized when codec() asks for it.
+     * @param path snapshot file
+     * @return the snapshot
+     * @throws IOException if the file can't be read, isn't a snapshot or fails its checksum
+     */
+    public static CodecSnapshot load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IOException(path + " is too short to be a codec snapshot");
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION)
+                throw new IOException(path + " is not a version " + VERSION + " codec snapshot");
+            int codecs = mapped.getInt(8);
+            long bodyLength = mapped.getLong(16);
+            if (codecs < 0 || bodyLength != size - HEADER_BYTES || bodyLength % Integer.BYTES != 0)
+                throw new IOException(path + " has an invalid snapshot header");
+            ByteBuffer body = mapped.slice(HEADER_BYTES, (int) bodyLength);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if (crc.getValue() != mapped.getLong(24))
+                throw new IOException(path + " fails its snapshot checksum");
+
+            IntBuffer ints = body.asIntBuffer();
+            int[] offsets = new int[codecs];
+            int offset = 0;
+            for (int c = 0; c < codecs; c++) {
+                if (offset + ENTRY_HEADER_INTS > ints.limit())
+                    throw new IOException(path + " is truncated");
+                offsets[c] = offset;
+                offset += entryInts(ints.get(offset + 2), ints.get(offset + 3));
+            }
+            if (offset != ints.limit())
+                throw new IOException(path + " has an invalid snapshot body");
+            return new CodecSnapshot(ints, offsets);
+        }
+    }
+
+    /**
+     * Returns the number of codecs in the snapshot.
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Returns the codec of the snapshot over the given field with evaluation points 0..n-1, as RSCodec(F, n, k).
+     * @return the restored codec, or null if the snapshot doesn't hold it
+     */
+    public RSCodec codec(GaloisField F, int n, int k) {
+        for (int c = 0; c < offsets.length; c++) {
+            int offset = offsets[c];
+            if (matches(offset, F, n, k) && kind(offset) == EvaluationPoints.Kind.CONSECUTIVE
+                    && body.get(offset + 5) == 0)
+                return restore(offset);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the codec of the snapshot over the given evaluation points, as RSCodec(points, k).
+     * @return the restored codec, or null if the snapshot doesn't hold it
+     */
+    public RSCodec codec(EvaluationPoints points, int k) {
+        for (int c = 0; c < offsets.length; c++) {
+            int offset = offsets[c];
+            if (matches(offset, points.getField(), points.size(), k)
+                    && Arrays.equals(points(offset), points.toArray()))
+                return restore(offset);
+        }
+        return null;
+    }
+
+    /**
+     * Returns every codec of the snapshot.
+     */
+    public List<RSCodec> codecs() {
+        List<RSCodec> res = new ArrayList<>();
+        for (int offset : offsets) {
+            res.add(restore(offset));
+        }
+        return res;
+    }
+
+    /**
+     * Seeds the primitive element and generator polynomial caches of ReedSolomon with the contents of the snapshot,
+     * so RSEncoder and the decoders skip computing them for the saved codes.
+     */
+    public void install() {
+        for (int offset : offsets) {
+            GaloisField F = new GaloisField(body.get(offset));
+            int n = body.get(offset + 2);
+            int k = body.get(offset + 3);
+            ReedSolomon.cachePrimitiveElement(F, body.get(offset + 1));
+            int[] generator = new int[n - k + 1];
+            body.get(offset + ENTRY_HEADER_INTS + n + (n - k) * k, generator);
+            ReedSolomon.cacheGeneratorPolynomial(F, n, k, new Polynomial(generator, F));
+        }
+    }
+
+    private boolean matches(int offset, GaloisField F, int n, int k) {
+        return body.get(offset) == F.getPrime() && body.get(offset + 2) == n && body.get(offset + 3) == k;
+    }
+
+    private EvaluationPoints.Kind kind(int offset) {
+        return EvaluationPoints.Kind.values()[body.get(offset + 4)];
+    }
+
+    private int[] points(int offset) {
+        int[] points = new int[body.get(offset + 2)];
+        body.get(offset + ENTRY_HEADER_INTS, points);
+        return points;
+    }
+
+    private RSCodec restore(int offset) {
+        GaloisField F = new GaloisField(body.get(offset));
+        int n = body.get(offset + 2);
+        int k = body.get(offset + 3);
+        EvaluationPoints points = EvaluationPoints.restore(F, kind(offset), points(offset), body.get(offset + 5),
+                body.get(offset + 6));
+        int[][] parityMatrix = new int[n - k][k];
+        int from = offset + ENTRY_HEADER_INTS + n;
+        for (int r = 0; r < n - k; r++) {
+            body.get(from + r * k, parityMatrix[r]);
+        }
+        return new RSCodec(points, k, parityMatrix);
+    }
+}
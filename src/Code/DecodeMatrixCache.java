@@ -0,0 +1,66 @@
+package Code;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DecodeMatrixCache {
+
+    private final int capacity;
+    private final LinkedHashMap<BitSet, int[][]> matrices;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Bounded least recently used cache of decode matrices, keyed by the bitmask of the surviving symbols the
+     * matrix was inverted for, so that repeated recoveries under the same failure pattern skip the inversion.
+     * @param capacity maximal number of cached matrices
+     * @throws IllegalArgumentException if capacity < 1
+     */
+    public DecodeMatrixCache(int capacity) throws IllegalArgumentException {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        this.capacity = capacity;
+        this.matrices = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BitSet, int[][]> eldest) {
+                return size() > DecodeMatrixCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the matrix cached for the given survivors, marking it as the most recently used.
+     * @param survivors bitmask of the surviving symbols
+     * @return the cached matrix or null if there is none
+     */
+    public synchronized int[][] get(BitSet survivors) {
+        int[][] matrix = matrices.get(survivors);
+        if (matrix == null)
+            misses++;
+        else
+            hits++;
+        return matrix;
+    }
+
+    /**
+     * Caches the matrix for the given survivors, evicting the least recently used matrix if the cache is full.
+     * @param survivors bitmask of the surviving symbols, copied before being used as a key
+     * @param matrix the decode matrix, which must not be modified afterwards
+     */
+    public synchronized void put(BitSet survivors, int[][] matrix) {
+        matrices.put((BitSet) survivors.clone(), matrix);
+    }
+
+    public synchronized int size() {
+        return matrices.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,249 @@
+package Code;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class EvaluationPoints {
+
+    /**
+     * The shape of a point set, which decides which fast algorithms apply to it.
+     */
+    public enum Kind {
+        /**
+         * start, start + 1, ..., start + n - 1
+         */
+        CONSECUTIVE,
+        /**
+         * 1, alpha, ..., alpha^(n-1)
+         */
+        POWERS,
+        /**
+         * shift, shift * g, ..., shift * g^(n-1) where g generates a subgroup of order n
+         */
+        COSET,
+        /**
+         * any distinct points
+         */
+        ARBITRARY
+    }
+
+    private final GaloisField F;
+    private final Kind kind;
+    private final int[] points;
+    private final int shift;
+    private final int generator;
+    private volatile int[][] powers = new int[0][];
+
+    private EvaluationPoints(GaloisField field, Kind kind, int[] points, int shift, int generator) {
+        this.F = field;
+        this.kind = kind;
+        this.points = points;
+        this.shift = shift;
+        this.generator = generator;
+    }
+
+    /**
+     * Returns the points 0, 1, ..., n-1, the points used by RSEncoder and the default of RSCodec.
+     * @param field the galois field Fp
+     * @param n number of points
+     * @throws IllegalArgumentException if n < 1 or n > p
+     */
+    public static EvaluationPoints consecutive(GaloisField field, int n) throws IllegalArgumentException {
+        return consecutive(field, 0, n);
+    }
+
+    /**
+     * Returns the points start, start + 1, ..., start + n - 1 modulo p.
+     * @param field the galois field Fp
+     * @param start first point
+     * @param n number of points
+     * @throws IllegalArgumentException if n < 1 or n > p
+     */
+    public static EvaluationPoints consecutive(GaloisField field, int start, int n) throws IllegalArgumentException {
+        checkLength(field, n, field.getPrime());
+        int[] points = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = field.mod(start + i);
+        }
+        return new EvaluationPoints(field, Kind.CONSECUTIVE, points, field.mod(start), 1);
+    }
+
+    /**
+     * Returns the points 1, alpha, ..., alpha^(n-1), the points of the classic BCH view of Reed-Solomon codes used by
+     * computeGeneratorPolynomial when alpha is a primitive element.
+     * @param field the galois field Fp
+     * @param alpha element of multiplicative order at least n
+     * @param n number of points
+     * @throws IllegalArgumentException if n < 1 or the powers of alpha repeat before n
+     */
+    public static EvaluationPoints powers(GaloisField field, int alpha, int n) throws IllegalArgumentException {
+        checkLength(field, n, field.getPrime() - 1);
+        if (field.mod(alpha) == 0)
+            throw new IllegalArgumentException("The powers of 0 aren't distinct");
+        int[] points = geometric(field, 1, alpha, n);
+        // the powers are distinct as long as none of alpha^1 ... alpha^(n-1) is 1, n-1 steps instead of the order
+        for (int i = 1; i < n; i++) {
+            if (points[i] == 1)
+                throw new IllegalArgumentException("Code length " + n + " exceeds the order " + i + " of " + alpha
+                        + " in GF" + field.getPrime());
+        }
+        return new EvaluationPoints(field, Kind.POWERS, points, 1, field.mod(alpha));
+    }
+
+    /**
+     * Returns the coset shift * H of the multiplicative subgroup H of order n, ordered as shift * g^i for a generator
+     * g of H. Such point sets allow evaluating and interpolating with number theoretic transforms when n is smooth.
+     * @param field the galois field Fp
+     * @param shift non zero coset representative, 1 for the subgroup itself
+     * @param n order of the subgroup, must divide p - 1
+     * @throws IllegalArgumentException if n doesn't divide p - 1 or shift is 0
+     */
+    public static EvaluationPoints coset(GaloisField field, int shift, int n) throws IllegalArgumentException {
+        int q = field.getPrime();
+        if (n < 1 || (q - 1) % n != 0)
+            throw new IllegalArgumentException("Subgroup order " + n + " doesn't divide " + (q - 1));
+        if (field.mod(shift) == 0)
+            throw new IllegalArgumentException("Coset shift must be non zero");
+        int g = ReedSolomon.powerModQ(ReedSolomon.findPrimitiveElement(field), (q - 1) / n, field);
+        return new EvaluationPoints(field, Kind.COSET, geometric(field, shift, g, n), field.mod(shift), g);
+    }
+
+    /**
+     * Returns the given points in the given order.
+     * @param field the galois field Fp
+     * @param points distinct points, reduced modulo p
+     * @throws IllegalArgumentException if there are no points or two of them are equal modulo p
+     */
+    public static EvaluationPoints of(GaloisField field, int... points) throws IllegalArgumentException {
+        checkLength(field, points.length, field.getPrime());
+        int[] copy = new int[points.length];
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = field.mod(points[i]);
+            if (!seen.add(copy[i]))
+                throw new IllegalArgumentException("Evaluation point " + copy[i] + " appears twice");
+        }
+        return new EvaluationPoints(field, Kind.ARBITRARY, copy, 0, 0);
+    }
+
+    /**
+     * Recreates a point set from its parts, as saved by CodecSnapshot.
+     */
+    static EvaluationPoints restore(GaloisField field, Kind kind, int[] points, int shift, int generator) {
+        return new EvaluationPoints(field, kind, points.clone(), shift, generator);
+    }
+
+    private static void checkLength(GaloisField field, int n, int limit) {
+        if (n < 1)
+            throw new IllegalArgumentException("Expected at least one evaluation point, got " + n);
+        if (n > limit)
+            throw new IllegalArgumentException("Code length " + n + " exceeds the " + limit
+                    + " distinct points available in GF" + field.getPrime());
+    }
+
+    private static int[] geometric(GaloisField field, int first, int ratio, int n) {
+        int[] points = new int[n];
+        points[0] = field.mod(first);
+        for (int i = 1; i < n; i++) {
+            points[i] = field.multiply(points[i - 1], ratio);
+        }
+        return points;
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    public Kind kind() {
+        return this.kind;
+    }
+
+    /**
+     * Returns the number of points.
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Returns the $i$th point.
+     */
+    public int point(int i) {
+        return points[i];
+    }
+
+    /**
+     * Returns a copy of the points in order.
+     */
+    public int[] toArray() {
+        return points.clone();
+    }
+
+    /**
+     * Returns the first point of a consecutive set or the coset representative of a multiplicative set, 0 for
+     * arbitrary points.
+     */
+    public int shift() {
+        return this.shift;
+    }
+
+    /**
+     * Returns the ratio between successive points of a multiplicative set, 1 for consecutive points and 0 for
+     * arbitrary points.
+     */
+    public int generator() {
+        return this.generator;
+    }
+
+    /**
+     * Returns the index of a point, or -1 if x isn't one of the points.
+     */
+    public int indexOf(int x) {
+        x = F.mod(x);
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == x)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the table of powers of the points, table[i][j] = point(i)^j for j <= maxDegree.
+     * The largest table requested so far is kept, so codecs asking for the same degree on every decode share it.
+     * @param maxDegree largest power needed
+     * @return the table, which must not be modified, possibly with more than maxDegree + 1 columns
+     */
+    public int[][] powerTable(int maxDegree) {
+        int[][] table = powers;
+        if (table.length > 0 && table[0].length > maxDegree)
+            return table;
+        table = new int[points.length][maxDegree + 1];
+        for (int i = 0; i < points.length; i++) {
+            table[i][0] = 1;
+            for (int j = 1; j <= maxDegree; j++) {
+                table[i][j] = F.multiply(table[i][j - 1], points[i]);
+            }
+        }
+        powers = table;
+        return table;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        EvaluationPoints that = (EvaluationPoints) other;
+        return F.equals(that.F) && Arrays.equals(points, that.points);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * F.hashCode() + Arrays.hashCode(points);
+    }
+
+    @Override
+    public String toString() {
+        return kind + Arrays.toString(points);
+    }
+}
@@ -1,5 +1,7 @@
 package Code;
 
+import java.util.Arrays;
+
 public class GaloisField {
 
     private final int prime;
@@ -28,7 +30,7 @@ public class GaloisField {
      * @return positive integer equal to (x + y) % p
      */
     public int add(int x, int y) {
-        return mod(x + y);
+        return Math.floorMod((long) x + y, prime);
     }
 
     /**
@@ -38,7 +40,7 @@ public class GaloisField {
      * @return positive integer equal to (x - y) % p
      */
     public int subtract(int x, int y) {
-        return mod(x - y);
+        return Math.floorMod((long) x - y, prime);
     }
 
     /**
@@ -48,23 +50,32 @@ public class GaloisField {
      * @return positive integer equal to (x * y) % p
      */
     public int multiply(int x, int y) {
-        return mod(x * y);
+        return Math.floorMod((long) x * y, prime);
     }
 
     /**
      * Given an integer, returns its multiplicative inverse over Fp if one exists, otherwise throws an exception.
+     * Uses the extended Euclidean algorithm, O(log p) steps.
      * @param a
      * @return the multiplicative index of the given integer over Fp
      * @throws ArithmeticException if given integer has no multiplicative inverse over Fp
      */
     public int modInverse(int a) throws ArithmeticException{
-        a = mod(a);
-        for (int x = 1; x < prime; x++) {
-            if (mod(a * x) == 1) {
-                return x;
-            }
+        // extended Euclid, keeping only the coefficient of a: r = s * a modulo p
+        long r0 = prime, r1 = mod(a);
+        long s0 = 0, s1 = 1;
+        while (r1 != 0) {
+            long quotient = r0 / r1;
+            long r = r0 - quotient * r1;
+            r0 = r1;
+            r1 = r;
+            long s = s0 - quotient * s1;
+            s0 = s1;
+            s1 = s;
         }
-        throw new ArithmeticException("modular inverse does not exist");
+        if (r0 != 1)
+            throw new ArithmeticException("modular inverse does not exist");
+        return mod((int) s0);
     }
 
     /**
@@ -78,7 +89,7 @@ public class GaloisField {
         if (mod(y) == 0)
             throw new IllegalArgumentException("Trying to divide by 0");
         int inverseOfDivisor = modInverse(y);
-        return (x * inverseOfDivisor) % prime;
+        return multiply(x, inverseOfDivisor);
     }
 
     /**
@@ -87,7 +98,42 @@ public class GaloisField {
      * @return a positive integer equal to x % p
      */
     public int mod(int x) {
-        return (x % prime + prime) % prime; // ensure positive result
+        return Math.floorMod(x, prime);
+    }
+
+    /**
+     * Given a row of symbols and a scalar c, adds c * src[i] to acc[i] for every i in [0, length) without reducing
+     * modulo p, so a whole row is multiplied and accumulated in a single tight loop.
+     * @param acc accumulators
+     * @param src row of symbols in [0, p)
+     * @param c scalar in [0, p)
+     * @param length number of symbols to accumulate
+     * @pre no more than accumulationLimit() products were accumulated into acc since it was last reduced
+     */
+    public void multiplyAccumulate(long[] acc, int[] src, int c, int length) {
+        for (int i = 0; i < length; i++) {
+            acc[i] += (long) c * src[i];
+        }
+    }
+
+    /**
+     * Returns how many products of two symbols of Fp can be accumulated into a reduced long without overflowing.
+     * @return floor((2^63 - 1) / (p - 1)^2) - 1
+     */
+    public int accumulationLimit() {
+        long maxProduct = (long) (prime - 1) * (prime - 1);
+        return (int) Math.min(Integer.MAX_VALUE, Long.MAX_VALUE / Math.max(1, maxProduct) - 1);
+    }
+
+    /**
+     * Reduces the first length accumulators modulo p.
+     * @param acc non negative accumulators
+     * @param length number of accumulators to reduce
+     */
+    public void reduce(long[] acc, int length) {
+        for (int i = 0; i < length; i++) {
+            acc[i] %= prime;
+        }
     }
 
     public int[] gaussianElimination(int[][] mat, int[] sol) {
@@ -142,6 +188,149 @@ public class GaloisField {
         return solution;
     }
 
+    /**
+     * Given a system of linear equations with any number of rows and columns, returns a solution over Fp.
+     * Free variables are set to 0.
+     * @param mat coefficients of the equations, mat[i] being the coefficients of equation i
+     * @param sol the value each equation should be equal to
+     * @return an array of length mat[0].length which solves the system, or null if the system is inconsistent
+     */
+    public int[] solveLinearSystem(int[][] mat, int[] sol) {
+        int rows = mat.length;
+        int cols = mat[0].length;
+
+        int[][] augmentedMat = new int[rows][cols + 1];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(mat[i], 0, augmentedMat[i], 0, cols);
+            augmentedMat[i][cols] = sol[i];
+        }
+        // Reduced row echelon form, pivotColumns[r] is the column of the pivot of row r
+        int[] pivotColumns = new int[Math.min(rows, cols)];
+        int rank = 0;
+        for (int col = 0; col < cols && rank < rows; col++) {
+            int pivotRow = rank;
+            while (pivotRow < rows && augmentedMat[pivotRow][col] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow >= rows)
+                continue; // free variable
+
+            int[] temp = augmentedMat[rank];
+            augmentedMat[rank] = augmentedMat[pivotRow];
+            augmentedMat[pivotRow] = temp;
+
+            int invPivot = modInverse(augmentedMat[rank][col]);
+            for (int j = col; j <= cols; j++) {
+                augmentedMat[rank][j] = multiply(augmentedMat[rank][j], invPivot);
+            }
+            for (int r = 0; r < rows; r++) {
+                int factor = augmentedMat[r][col];
+                if (r == rank || factor == 0)
+                    continue;
+                for (int j = col; j <= cols; j++) {
+                    augmentedMat[r][j] = subtract(augmentedMat[r][j], multiply(factor, augmentedMat[rank][j]));
+                }
+            }
+            pivotColumns[rank++] = col;
+        }
+        // Rows without a pivot must have been reduced to 0 = 0
+        for (int r = rank; r < rows; r++) {
+            if (augmentedMat[r][cols] != 0)
+                return null;
+        }
+        int[] solution = new int[cols];
+        for (int r = 0; r < rank; r++) {
+            solution[pivotColumns[r]] = augmentedMat[r][cols];
+        }
+        return solution;
+    }
+
+    /**
+     * Given a matrix over Fp, returns its rank using Gaussian elimination.
+     * @param mat matrix with any number of rows and columns, left unchanged
+     * @return the number of linearly independent rows
+     */
+    public int rank(int[][] mat) {
+        int rows = mat.length;
+        if (rows == 0)
+            return 0;
+        int cols = mat[0].length;
+        int[][] copy = new int[rows][];
+        for (int i = 0; i < rows; i++) {
+            copy[i] = mat[i].clone();
+        }
+        int rank = 0;
+        for (int col = 0; col < cols && rank < rows; col++) {
+            int pivotRow = rank;
+            while (pivotRow < rows && copy[pivotRow][col] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow >= rows)
+                continue;
+            int[] temp = copy[rank];
+            copy[rank] = copy[pivotRow];
+            copy[pivotRow] = temp;
+            int invPivot = modInverse(copy[rank][col]);
+            for (int r = rank + 1; r < rows; r++) {
+                int factor = multiply(copy[r][col], invPivot);
+                if (factor == 0)
+                    continue;
+                for (int j = col; j < cols; j++) {
+                    copy[r][j] = subtract(copy[r][j], multiply(factor, copy[rank][j]));
+                }
+            }
+            rank++;
+        }
+        return rank;
+    }
+
+    /**
+     * Given a square matrix over Fp, returns its inverse using Gauss-Jordan elimination.
+     * @param mat square matrix, left unchanged
+     * @return the inverse of mat
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public int[][] invertMatrix(int[][] mat) throws ArithmeticException {
+        int size = mat.length;
+        // Augment the matrix with the identity matrix
+        int[][] augmentedMat = new int[size][2 * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                augmentedMat[i][j] = mod(mat[i][j]);
+            }
+            augmentedMat[i][size + i] = 1;
+        }
+        for (int col = 0; col < size; col++) {
+            int pivotRow = col;
+            while (pivotRow < size && augmentedMat[pivotRow][col] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow >= size)
+                throw new ArithmeticException("Matrix is singular");
+            int[] temp = augmentedMat[col];
+            augmentedMat[col] = augmentedMat[pivotRow];
+            augmentedMat[pivotRow] = temp;
+
+            int invPivot = modInverse(augmentedMat[col][col]);
+            for (int j = 0; j < 2 * size; j++) {
+                augmentedMat[col][j] = multiply(augmentedMat[col][j], invPivot);
+            }
+            for (int r = 0; r < size; r++) {
+                int factor = augmentedMat[r][col];
+                if (r == col || factor == 0)
+                    continue;
+                for (int j = 0; j < 2 * size; j++) {
+                    augmentedMat[r][j] = subtract(augmentedMat[r][j], multiply(factor, augmentedMat[col][j]));
+                }
+            }
+        }
+        int[][] inverse = new int[size][];
+        for (int i = 0; i < size; i++) {
+            inverse[i] = Arrays.copyOfRange(augmentedMat[i], size, 2 * size);
+        }
+        return inverse;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -149,4 +338,9 @@ public class GaloisField {
         GaloisField that = (GaloisField) o;
         return prime == that.prime;
     }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(prime);
+    }
 }
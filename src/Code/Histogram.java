@@ -0,0 +1,104 @@
+package Code;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram {
+
+    /**
+     * Values below 2^PRECISION_BITS get a bucket of their own, larger values are bucketed with
+     * 2^(PRECISION_BITS - 1) buckets per power of two, so the reported values are within ~3% of the recorded ones.
+     */
+    private static final int PRECISION_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << (PRECISION_BITS - 1);
+    private static final int BUCKETS = (64 - PRECISION_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a non negative value, negative values are recorded as 0.
+     * Lock free, safe to call concurrently.
+     * @param value value to record, e.g. a latency in nanoseconds
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    static int bucketOf(long value) {
+        if (value < (1L << PRECISION_BITS))
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - PRECISION_BITS + 1;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value which falls into the given bucket.
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < (1 << PRECISION_BITS))
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return (mantissa << shift) + (1L << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Given a percentile, returns the value below which that percentage of the recorded values fall.
+     * @param percentile percentile in [0, 100]
+     * @return the highest value equivalent to the value at the percentile, or 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target)
+                return Math.min(highestValueOf(bucket), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears all recorded values, values recorded concurrently with the reset may be partially lost.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
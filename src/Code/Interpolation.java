@@ -1,6 +1,5 @@
 package Code;
 
-import java.util.LinkedList;
 import java.util.List;
 
 public class Interpolation {
@@ -31,27 +30,56 @@ public class Interpolation {
         return coords;
     }
 
+    /**
+     * Given interpolation coordinates with distinct x values, returns the coefficients of the polynomial of degree <
+     * coordinates.length passing through all of them.
+     * @param coordinates array of {x, y} pairs
+     * @param F the galois field to interpolate over
+     * @return the coefficients of the interpolating polynomial, from the lowest degree
+     */
     public static int[] lagrangeInterpolation(int[][] coordinates, GaloisField F) {
-        List<Polynomial> lagrangePolynomials = new LinkedList<>();
-        for(int i = 0; i < coordinates.length; i++) {
-            Polynomial l_i = Polynomial.ONE(F);
-            for(int j = 0; j < coordinates.length; j++) {
-                if (j == i)
+        PolynomialArena arena = PolynomialArena.get();
+        int mark = arena.mark();
+        try {
+            MutablePolynomial lagrange = arena.allocate(F, coordinates.length);
+            lagrangeInterpolation(coordinates, F, lagrange);
+            return lagrange.toArray();
+        } finally {
+            arena.release(mark);
+        }
+    }
+
+    /**
+     * Same as lagrangeInterpolation(int[][], GaloisField), writing the interpolating polynomial to dest.
+     * Instead of building every lagrange basis polynomial from scratch, the product N(x) of all (x - x_j) is computed
+     * once and each basis polynomial is N(x) / (x - x_i), found by synthetic division into a single scratch
+     * polynomial, so the interpolation takes O(m^2) operations without allocating per term.
+     * @param coordinates array of {x, y} pairs
+     * @param F the galois field to interpolate over
+     * @param dest polynomial to write the result to
+     */
+    public static void lagrangeInterpolation(int[][] coordinates, GaloisField F, MutablePolynomial dest) {
+        PolynomialArena arena = PolynomialArena.get();
+        int mark = arena.mark();
+        try {
+            int m = coordinates.length;
+            MutablePolynomial master = arena.allocate(F, m + 1).setConstant(1);
+            for (int[] coordinate : coordinates) {
+                master.multiplyByLinear(coordinate[0]);
+            }
+            MutablePolynomial basis = arena.allocate(F, m + 1);
+            dest.setZero();
+            for (int[] coordinate : coordinates) {
+                int y = F.mod(coordinate[1]);
+                if (y == 0)
                     continue;
-                int negativeXValue = -coordinates[j][0];
-                int diff = coordinates[i][0] + negativeXValue;
-                Polynomial mul = new Polynomial(new int[]{negativeXValue, 1}, F);
-                Polynomial div = new Polynomial(new int[]{diff}, F);
-                l_i = l_i.multiply(mul).div(div);
+                basis.set(master).divideByLinear(coordinate[0]);
+                // basis(x_i) is the product of (x_i - x_j) over j != i
+                int denominator = basis.evaluate(coordinate[0]);
+                dest.addScaled(basis, F.div(y, denominator));
             }
-            lagrangePolynomials.add(l_i);
-        }
-        Polynomial lagrange = Polynomial.ZERO(F);
-        for(int i = 0; i < coordinates.length; i++) {
-            Polynomial l_i = lagrangePolynomials.get(i);
-            Polynomial coeff = new Polynomial(new int[]{coordinates[i][1]}, F);
-            lagrange = lagrange.add(l_i.multiply(coeff));
+        } finally {
+            arena.release(mark);
         }
-        return lagrange.getCoefficients();
     }
 }
@@ -0,0 +1,226 @@
+package Code;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class ListDecoder {
+
+    /**
+     * Largest multiplicity considered when choosing one automatically, the interpolation cost grows with m^4.
+     */
+    public static final int MAX_MULTIPLICITY = 6;
+
+    private final GaloisField F;
+    private final int[] points;
+    private final int k;
+    private final int multiplicity;
+    private final int weightedDegree;
+    private final int yDegree;
+
+    /**
+     * Guruswami-Sudan list decoder for Reed-Solomon codes whose codewords are the evaluations of message polynomials
+     * of degree < k at the given points.
+     * Finds a polynomial Q(x, y) of (1, k-1) weighted degree at most D with a zero of multiplicity m at every received
+     * point (x_i, y_i) using Koetter's interpolation, then every message f which agrees with more than D/m received
+     * symbols satisfies Q(x, f(x)) = 0, and is found among the y-roots of Q by the Roth-Ruckenstein algorithm.
+     * With m = 1 this is Sudan's decoder, larger multiplicities approach the Johnson radius n - sqrt(n(k-1)).
+     * @param field the galois field Fp
+     * @param points distinct evaluation points of the code
+     * @param k length of a message, at least 2
+     * @param multiplicity multiplicity of the interpolation points, at least 1
+     * @throws IllegalArgumentException if k < 2, k >= n or multiplicity < 1
+     */
+    public ListDecoder(GaloisField field, int[] points, int k, int multiplicity) throws IllegalArgumentException {
+        int n = points.length;
+        if (k < 2 || k >= n)
+            throw new IllegalArgumentException("List decoding requires 2 <= k < n, got n = " + n + ", k = " + k);
+        if (multiplicity < 1 || multiplicity >= field.getPrime())
+            throw new IllegalArgumentException("Multiplicity must be in [1, p), got " + multiplicity);
+        this.F = field;
+        this.points = points.clone();
+        this.k = k;
+        this.multiplicity = multiplicity;
+        this.weightedDegree = interpolationDegree(n, k, multiplicity);
+        this.yDegree = weightedDegree / (k - 1);
+    }
+
+    /**
+     * Same as ListDecoder(GaloisField, int[], int, int) with the multiplicity in [1, MAX_MULTIPLICITY] which gives
+     * the largest decoding radius.
+     */
+    public ListDecoder(GaloisField field, int[] points, int k) throws IllegalArgumentException {
+        this(field, points, k, bestMultiplicity(points.length, k));
+    }
+
+    /**
+     * Given the length, dimension and multiplicity, returns the smallest (1, k-1) weighted degree D for which the
+     * number of monomials x^i * y^j with i + (k-1)j <= D exceeds the n * m(m+1)/2 interpolation constraints, so a non
+     * zero interpolation polynomial is guaranteed to exist.
+     */
+    public static int interpolationDegree(int n, int k, int m) {
+        long constraints = (long) n * m * (m + 1) / 2;
+        int w = k - 1;
+        for (int D = 0; ; D++) {
+            long monomials = 0;
+            for (int j = 0; j * w <= D; j++) {
+                monomials += D - (long) j * w + 1;
+            }
+            if (monomials > constraints)
+                return D;
+        }
+    }
+
+    /**
+     * Returns the number of errors the decoder is guaranteed to correct.
+     * @return n - t where t is the smallest number of agreements with t * m > D
+     */
+    public static int radius(int n, int k, int m) {
+        int agreements = interpolationDegree(n, k, m) / m + 1;
+        return Math.max(0, n - agreements);
+    }
+
+    /**
+     * Returns the smallest multiplicity in [1, MAX_MULTIPLICITY] with the largest decoding radius.
+     */
+    public static int bestMultiplicity(int n, int k) {
+        int best = 1;
+        for (int m = 2; m <= MAX_MULTIPLICITY; m++) {
+            if (radius(n, k, m) > radius(n, k, best))
+                best = m;
+        }
+        return best;
+    }
+
+    public int getMultiplicity() {
+        return multiplicity;
+    }
+
+    /**
+     * Returns the number of errors this decoder is guaranteed to correct.
+     */
+    public int radius() {
+        return radius(points.length, k, multiplicity);
+    }
+
+    /**
+     * Given the received symbols, returns every message polynomial of degree < k whose codeword is within radius()
+     * of the received word, ordered by increasing distance.
+     * @param received n symbols, received[i] being the symbol at points[i]
+     * @return the list of candidate messages, empty if there are none
+     */
+    public List<Polynomial> decode(int[] received) {
+        BivariatePolynomial Q = interpolate(received);
+        int minAgreement = points.length - radius();
+        List<Polynomial> candidates = new ArrayList<>();
+        List<Integer> agreements = new ArrayList<>();
+        for (Polynomial f : yRoots(Q)) {
+            int agreement = 0;
+            for (int i = 0; i < points.length; i++) {
+                if (f.evaluatePolynomial(points[i]) == F.mod(received[i]))
+                    agreement++;
+            }
+            if (agreement >= minAgreement && !f.in(candidates)) {
+                candidates.add(f);
+                agreements.add(agreement);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(agreements::get, Comparator.reverseOrder()));
+        List<Polynomial> res = new ArrayList<>();
+        for (int i : order) {
+            res.add(candidates.get(i));
+        }
+        return res;
+    }
+
+    /**
+     * Koetter's iterative interpolation. Starting from the basis G_j = y^j for j <= L, every constraint "the Hasse
+     * derivative (r, s) of Q vanishes at (x_i, y_i)" is imposed in turn: the polynomial of smallest weighted degree
+     * with a non zero discrepancy is used to cancel the discrepancies of the others, then multiplied by (x - x_i).
+     * Constraints of a point are imposed with r increasing for every s, so that multiplying by (x - x_i) keeps the
+     * earlier constraints of the point satisfied. This takes O(n m^2) passes over L + 1 polynomials instead of
+     * solving a dense linear system in all the monomials.
+     * @param received n symbols, received[i] being the symbol at points[i]
+     * @return the interpolation polynomial of least (1, k-1) weighted degree
+     */
+    public BivariatePolynomial interpolate(int[] received) {
+        int w = k - 1;
+        BivariatePolynomial[] G = new BivariatePolynomial[yDegree + 1];
+        for (int j = 0; j <= yDegree; j++) {
+            G[j] = BivariatePolynomial.yPower(j, F);
+        }
+        int[] discrepancies = new int[yDegree + 1];
+        int[] degrees = new int[yDegree + 1];
+        for (int j = 0; j <= yDegree; j++) {
+            degrees[j] = j * w;
+        }
+        for (int i = 0; i < points.length; i++) {
+            int a = points[i];
+            int b = F.mod(received[i]);
+            for (int s = 0; s < multiplicity; s++) {
+                for (int r = 0; r + s < multiplicity; r++) {
+                    int pivot = -1;
+                    for (int j = 0; j <= yDegree; j++) {
+                        discrepancies[j] = G[j].hasseDerivative(r, s, a, b);
+                        if (discrepancies[j] != 0 && (pivot < 0 || degrees[j] < degrees[pivot]))
+                            pivot = j;
+                    }
+                    if (pivot < 0)
+                        continue;
+                    for (int j = 0; j <= yDegree; j++) {
+                        if (j != pivot && discrepancies[j] != 0)
+                            G[j].combine(discrepancies[pivot], G[pivot], discrepancies[j]);
+                    }
+                    G[pivot].multiplyByLinearX(a);
+                    degrees[pivot]++;
+                }
+            }
+        }
+        int best = 0;
+        for (int j = 1; j <= yDegree; j++) {
+            if (degrees[j] < degrees[best])
+                best = j;
+        }
+        return G[best];
+    }
+
+    /**
+     * Returns the polynomials f of degree < k with Q(x, f(x)) = 0, found coefficient by coefficient with the
+     * Roth-Ruckenstein algorithm: f_0 is a root of Q(0, y), and the remaining coefficients are the y-roots of
+     * Q(x, x * y + f_0) / x^t, recursively.
+     * @param Q a non zero bivariate polynomial
+     * @return the y-roots of Q of degree < k, possibly with duplicates
+     */
+    public List<Polynomial> yRoots(BivariatePolynomial Q) {
+        List<Polynomial> res = new ArrayList<>();
+        rothRuckenstein(Q.divideByXPower(), 0, new int[k], res);
+        return res;
+    }
+
+    private void rothRuckenstein(BivariatePolynomial Q, int depth, int[] prefix, List<Polynomial> res) {
+        Polynomial M = Q.atXZero();
+        if (M.degree() == 0)
+            return; // Q(0, y) is a non zero constant, no roots
+        for (int gamma : fieldRoots(M)) {
+            prefix[depth] = gamma;
+            if (depth == k - 1) {
+                res.add(new Polynomial(prefix, F));
+                continue;
+            }
+            rothRuckenstein(Q.shiftRoot(gamma), depth + 1, prefix, res);
+        }
+    }
+
+    /**
+     * Returns the distinct roots of a univariate polynomial in Fp.
+     */
+    private int[] fieldRoots(Polynomial M) {
+        int[] roots = new int[M.degree()];
+        return Arrays.copyOf(roots, RootFinder.findRoots(M, roots));
+    }
+}
@@ -0,0 +1,276 @@
+package Code;
+
+import java.util.Arrays;
+
+public class LocallyRepairableCode {
+
+    private final GaloisField F;
+    private final int k;
+    private final int groups;
+    private final int groupSize;
+    private final RSCodec global;
+    /**
+     * globalRows[r][j] is the coefficient of data symbol j in global parity r.
+     */
+    private final int[][] globalRows;
+
+    /**
+     * Locally repairable code over Fp. The k data symbols are split into groups of groupSize() consecutive symbols,
+     * each protected by a local parity holding the sum of its group, and the data as a whole is protected by the
+     * parity symbols of a systematic RSCodec(k + globalParities, k).
+     * A codeword is laid out as the k data symbols, then one local parity per group, then the global parities, so a
+     * single lost data symbol or local parity is rebuilt from the groupSize() other symbols of its group instead of
+     * from k symbols, and the global parities are only needed when a group loses more than one symbol.
+     * @param field the galois field Fp
+     * @param k length of a message
+     * @param groups number of local groups, in [1, k]
+     * @param globalParities number of global parity symbols, at least 1
+     * @throws IllegalArgumentException if the parameters don't fit the field or each other
+     */
+    public LocallyRepairableCode(GaloisField field, int k, int groups, int globalParities)
+            throws IllegalArgumentException {
+        if (groups < 1 || groups > k)
+            throw new IllegalArgumentException("Expected 1 <= groups <= k, got k = " + k + ", groups = " + groups);
+        if (globalParities < 1)
+            throw new IllegalArgumentException("Expected at least one global parity, got " + globalParities);
+        this.F = field;
+        this.k = k;
+        this.groups = groups;
+        this.groupSize = (k + groups - 1) / groups;
+        if ((groups - 1) * groupSize >= k)
+            throw new IllegalArgumentException(k + " symbols can't be split into " + groups + " non empty groups");
+        this.global = new RSCodec(field, k + globalParities, k);
+        this.globalRows = Arrays.copyOfRange(global.generatorMatrix(), k, k + globalParities);
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    /**
+     * Returns the length of a codeword.
+     * @return k + groups + global parities
+     */
+    public int length() {
+        return global.length() + groups;
+    }
+
+    /**
+     * Returns the length of a message.
+     * @return k
+     */
+    public int dimension() {
+        return this.k;
+    }
+
+    /**
+     * Returns the number of local groups.
+     */
+    public int groups() {
+        return this.groups;
+    }
+
+    /**
+     * Returns the number of data symbols in a full group, the last group may be smaller.
+     */
+    public int groupSize() {
+        return this.groupSize;
+    }
+
+    /**
+     * Returns the codec of the global parities.
+     */
+    public RSCodec getGlobalCodec() {
+        return this.global;
+    }
+
+    /**
+     * Returns the group of a data symbol or local parity, or -1 for a global parity.
+     * @param index position in a codeword
+     */
+    public int groupOf(int index) {
+        if (index < k)
+            return index / groupSize;
+        if (index < k + groups)
+            return index - k;
+        return -1;
+    }
+
+    /**
+     * Returns the positions which have to be read to rebuild the symbol at the given position on its own: the rest of
+     * its group for a data symbol or local parity, and the k data symbols for a global parity.
+     * @param index position in a codeword
+     * @return positions in increasing order
+     */
+    public int[] repairSet(int index) {
+        int group = groupOf(index);
+        if (group < 0) {
+            int[] data = new int[k];
+            for (int i = 0; i < k; i++) {
+                data[i] = i;
+            }
+            return data;
+        }
+        int from = group * groupSize;
+        int to = Math.min(k, from + groupSize);
+        int[] res = new int[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (i != index)
+                res[count++] = i;
+        }
+        if (index != k + group)
+            res[count++] = k + group;
+        return res;
+    }
+
+    /**
+     * Given a message of k symbols, writes its codeword into the given array: the message, the local parities and the
+     * global parities.
+     * @param data message symbols
+     * @param codeword array of length >= length() to write the codeword to
+     * @pre foreach i, 0 <= data[i] < p
+     */
+    public void encode(int[] data, int[] codeword) {
+        int[] globalCodeword = new int[global.length()];
+        global.encode(data, globalCodeword);
+        System.arraycopy(globalCodeword, 0, codeword, 0, k);
+        for (int g = 0; g < groups; g++) {
+            codeword[k + g] = localParity(codeword, g, -1);
+        }
+        System.arraycopy(globalCodeword, k, codeword, k + groups, global.length() - k);
+    }
+
+    /**
+     * Returns the sum of the data symbols of a group, skipping the given position.
+     */
+    private int localParity(int[] codeword, int group, int skip) {
+        return localParity(codeword, group, skip, null);
+    }
+
+    /**
+     * Returns the sum of the data symbols of a group, skipping the given position and, if present is given, the
+     * missing symbols.
+     */
+    private int localParity(int[] codeword, int group, int skip, boolean[] present) {
+        int from = group * groupSize;
+        int to = Math.min(k, from + groupSize);
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            if (i != skip && (present == null || present[i]))
+                sum += codeword[i];
+        }
+        return (int) (sum % F.getPrime());
+    }
+
+    /**
+     * Given a codeword with missing symbols, fills them in place. Groups missing a single symbol are repaired locally
+     * first, and only if data symbols are still missing afterwards they are solved for jointly from the present local
+     * and global parities, after which the missing parities are recomputed from the data.
+     * @param codeword length() symbols, missing symbols may hold any value
+     * @param present present[i] is true if codeword[i] is known to be correct, updated as symbols are rebuilt
+     * @return the number of symbols which were repaired locally
+     * @throws IllegalArgumentException if the missing symbols can't be recovered
+     */
+    public int reconstruct(int[] codeword, boolean[] present) throws IllegalArgumentException {
+        int local = 0;
+        for (int g = 0; g < groups; g++) {
+            int missing = -1;
+            int count = 0;
+            for (int i : repairSet(k + g)) {
+                if (!present[i]) {
+                    missing = i;
+                    count++;
+                }
+            }
+            if (!present[k + g]) {
+                missing = k + g;
+                count++;
+            }
+            if (count != 1)
+                continue;
+            int sum = localParity(codeword, g, missing);
+            codeword[missing] = missing == k + g ? sum : F.subtract(codeword[k + g], sum);
+            present[missing] = true;
+            local++;
+        }
+
+        int[] missing = new int[k];
+        int m = 0;
+        for (int i = 0; i < k; i++) {
+            if (!present[i])
+                missing[m++] = i;
+        }
+        if (m > 0)
+            solveMissingData(codeword, present, Arrays.copyOf(missing, m));
+        int[] parity = null;
+        for (int i = k; i < length(); i++) {
+            if (present[i])
+                continue;
+            if (i < k + groups) {
+                codeword[i] = localParity(codeword, i - k, -1);
+            } else {
+                if (parity == null) {
+                    parity = new int[global.length()];
+                    global.encode(Arrays.copyOf(codeword, k), parity);
+                }
+                codeword[i] = parity[i - groups];
+            }
+            present[i] = true;
+        }
+        return local;
+    }
+
+    /**
+     * Solves for the missing data symbols with one equation per present local parity of a group missing data and per
+     * present global parity, the known symbols being moved to the right hand side.
+     */
+    private void solveMissingData(int[] codeword, boolean[] present, int[] missing) throws IllegalArgumentException {
+        int m = missing.length;
+        int globalParities = globalRows.length;
+        int[][] equations = new int[groups + globalParities][];
+        int[] result = new int[equations.length];
+        int count = 0;
+        for (int g = 0; g < groups; g++) {
+            if (!present[k + g])
+                continue;
+            int[] row = new int[m];
+            boolean used = false;
+            for (int t = 0; t < m; t++) {
+                if (groupOf(missing[t]) == g) {
+                    row[t] = 1;
+                    used = true;
+                }
+            }
+            if (!used)
+                continue;
+            equations[count] = row;
+            result[count++] = F.subtract(codeword[k + g], localParity(codeword, g, -1, present));
+        }
+        for (int r = 0; r < globalParities; r++) {
+            if (!present[k + groups + r])
+                continue;
+            long known = 0;
+            int[] row = new int[m];
+            for (int j = 0, t = 0; j < k; j++) {
+                if (t < m && missing[t] == j)
+                    row[t++] = globalRows[r][j];
+                else
+                    known = (known + (long) globalRows[r][j] * codeword[j]) % F.getPrime();
+            }
+            equations[count] = row;
+            result[count++] = F.subtract(codeword[k + groups + r], (int) known);
+        }
+        equations = Arrays.copyOf(equations, count);
+        if (count < m || F.rank(equations) < m)
+            throw new IllegalArgumentException("The " + m + " missing data symbols can't be recovered from the "
+                    + count + " present parities covering them");
+        int[] values = F.solveLinearSystem(equations, Arrays.copyOf(result, count));
+        if (values == null)
+            throw new IllegalArgumentException("The present symbols are inconsistent");
+        for (int t = 0; t < m; t++) {
+            codeword[missing[t]] = values[t];
+            present[missing[t]] = true;
+        }
+    }
+}
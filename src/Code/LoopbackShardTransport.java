@@ -0,0 +1,90 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoopbackShardTransport implements ShardTransport {
+
+    private final ByteBuffer[] shards;
+    private final long[] latencies;
+    private final boolean[] down;
+    private final BlockChecksums[] checksums;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    /**
+     * In process stand-in for a set of storage nodes, node i serving shards[i] after a configurable latency.
+     * @param shards the payload of every shard, a null shard is reported as missing
+     */
+    public LoopbackShardTransport(ByteBuffer[] shards) {
+        this.shards = shards.clone();
+        this.latencies = new long[shards.length];
+        this.down = new boolean[shards.length];
+        this.checksums = new BlockChecksums[shards.length];
+    }
+
+    /**
+     * Makes node index serve the given block checksums alongside its shard.
+     * @return this
+     */
+    public LoopbackShardTransport setChecksums(int index, BlockChecksums blockChecksums) {
+        checksums[index] = blockChecksums;
+        return this;
+    }
+
+    /**
+     * Sets the time node index takes to serve its shard.
+     * @return this
+     */
+    public LoopbackShardTransport setLatency(int index, long millis) {
+        latencies[index] = millis;
+        return this;
+    }
+
+    /**
+     * Makes fetches from node index fail with an IOException.
+     * @return this
+     */
+    public LoopbackShardTransport setDown(int index, boolean isDown) {
+        down[index] = isDown;
+        return this;
+    }
+
+    /**
+     * Returns the number of fetches which returned a shard.
+     */
+    public int completedFetches() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of fetches which were interrupted before returning.
+     */
+    public int cancelledFetches() {
+        return cancelled.get();
+    }
+
+    @Override
+    public ByteBuffer fetch(int index) throws IOException, InterruptedException {
+        try {
+            Thread.sleep(latencies[index]);
+        } catch (InterruptedException e) {
+            cancelled.incrementAndGet();
+            throw e;
+        }
+        if (down[index])
+            throw new IOException("Node " + index + " is down");
+        if (shards[index] == null)
+            return null;
+        completed.incrementAndGet();
+        return shards[index].duplicate();
+    }
+
+    @Override
+    public BlockChecksums fetchChecksums(int index) throws IOException {
+        if (down[index])
+            throw new IOException("Node " + index + " is down");
+        return checksums[index];
+    }
+}
@@ -0,0 +1,297 @@
+package Code;
+
+import java.util.Arrays;
+
+public class MutablePolynomial {
+
+    private int[] coefficients;
+    private int size = 1;
+    private GaloisField F;
+
+    /**
+     * Polynomial over Fp whose operations overwrite it in place instead of allocating a new polynomial, used as
+     * scratch space by the decoders and interpolation. The coefficient array only grows, so once a polynomial reached
+     * the largest degree of a computation it performs no further allocations.
+     * Like Polynomial, coefficients are always kept reduced to [0, p).
+     * @param field the galois field Fp
+     * @param capacity initial number of coefficients which fit without growing
+     */
+    public MutablePolynomial(GaloisField field, int capacity) {
+        this.coefficients = new int[Math.max(1, capacity)];
+        this.F = field;
+    }
+
+    /**
+     * Sets this polynomial to the zero polynomial over the given field, keeping its capacity.
+     * @param field the galois field the polynomial is now over
+     * @return this
+     */
+    MutablePolynomial reset(GaloisField field) {
+        this.F = field;
+        return setZero();
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    /**
+     * Returns the degree of the polynomial, which like Polynomial.degree() counts leading zero coefficients until
+     * trim() is called.
+     * @return number of coefficients - 1
+     */
+    public int degree() {
+        return size - 1;
+    }
+
+    /**
+     * Returns the coefficient of the $degree$th term.
+     * @param degree the degree of the term
+     * @return the coefficient in [0, p), 0 if degree is out of range
+     */
+    public int getCoefficient(int degree) {
+        if (degree < 0 || degree >= size)
+            return 0;
+        return coefficients[degree];
+    }
+
+    /**
+     * Sets the coefficient of the $degree$th term, raising the degree of the polynomial if needed.
+     * @return this
+     */
+    public MutablePolynomial setCoefficient(int degree, int value) {
+        if (degree >= size) {
+            ensureCapacity(degree + 1);
+            Arrays.fill(coefficients, size, degree + 1, 0);
+            size = degree + 1;
+        }
+        coefficients[degree] = F.mod(value);
+        return this;
+    }
+
+    public boolean isZero() {
+        for (int i = 0; i < size; i++) {
+            if (coefficients[i] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    public MutablePolynomial setZero() {
+        return setConstant(0);
+    }
+
+    public MutablePolynomial setConstant(int c) {
+        coefficients[0] = F.mod(c);
+        size = 1;
+        return this;
+    }
+
+    /**
+     * Copies length coefficients of the given array starting at from, without trimming leading zeros.
+     * @return this
+     */
+    public MutablePolynomial set(int[] coeffs, int from, int length) {
+        if (length <= 0)
+            return setZero();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            coefficients[i] = F.mod(coeffs[from + i]);
+        }
+        size = length;
+        return this;
+    }
+
+    public MutablePolynomial set(Polynomial p) {
+        int length = p.degree() + 1;
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            coefficients[i] = p.getCoefficient(i);
+        }
+        size = length;
+        return this;
+    }
+
+    public MutablePolynomial set(MutablePolynomial other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.coefficients, 0, coefficients, 0, other.size);
+        size = other.size;
+        return this;
+    }
+
+    /**
+     * Drops leading zero coefficients.
+     * @return this
+     */
+    public MutablePolynomial trim() {
+        while (size > 1 && coefficients[size - 1] == 0) {
+            size--;
+        }
+        return this;
+    }
+
+    /**
+     * Adds c * other to this polynomial, like Polynomial.add the degree doesn't drop if leading terms cancel.
+     * @param other polynomial to add, may be this
+     * @param c scalar in [0, p)
+     * @return this
+     */
+    public MutablePolynomial addScaled(MutablePolynomial other, int c) {
+        int otherSize = other.size;
+        if (otherSize > size) {
+            ensureCapacity(otherSize);
+            Arrays.fill(coefficients, size, otherSize, 0);
+            size = otherSize;
+        }
+        for (int i = 0; i < otherSize; i++) {
+            coefficients[i] = F.add(coefficients[i], F.multiply(c, other.coefficients[i]));
+        }
+        return this;
+    }
+
+    public MutablePolynomial add(MutablePolynomial other) {
+        return addScaled(other, 1);
+    }
+
+    public MutablePolynomial subtract(MutablePolynomial other) {
+        return addScaled(other, F.getPrime() - 1).trim();
+    }
+
+    public MutablePolynomial scale(int c) {
+        for (int i = 0; i < size; i++) {
+            coefficients[i] = F.multiply(c, coefficients[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies this polynomial by (x - root).
+     * @return this
+     */
+    public MutablePolynomial multiplyByLinear(int root) {
+        ensureCapacity(size + 1);
+        coefficients[size] = 0;
+        for (int i = size; i > 0; i--) {
+            coefficients[i] = F.subtract(coefficients[i - 1], F.multiply(root, coefficients[i]));
+        }
+        coefficients[0] = F.subtract(0, F.multiply(root, coefficients[0]));
+        size++;
+        return this;
+    }
+
+    /**
+     * Divides this polynomial by (x - root) using synthetic division, leaving the quotient in this polynomial.
+     * @return the remainder, which is the value of the polynomial at root
+     */
+    public int divideByLinear(int root) {
+        if (size == 1) {
+            int remainder = coefficients[0];
+            coefficients[0] = 0;
+            return remainder;
+        }
+        int carry = coefficients[size - 1];
+        for (int i = size - 2; i >= 0; i--) {
+            int current = coefficients[i];
+            coefficients[i] = carry;
+            carry = F.add(current, F.multiply(root, carry));
+        }
+        size--;
+        return carry;
+    }
+
+    /**
+     * Sets this polynomial to the product of a and b.
+     * @param a first factor, must not be this
+     * @param b second factor, must not be this
+     * @return this, trimmed
+     */
+    public MutablePolynomial multiply(MutablePolynomial a, MutablePolynomial b) {
+        int length = a.size + b.size - 1;
+        ensureCapacity(length);
+        Arrays.fill(coefficients, 0, length, 0);
+        for (int i = 0; i < a.size; i++) {
+            int c = a.coefficients[i];
+            if (c == 0)
+                continue;
+            for (int j = 0; j < b.size; j++) {
+                coefficients[i + j] = F.add(coefficients[i + j], F.multiply(c, b.coefficients[j]));
+            }
+        }
+        size = length;
+        return trim();
+    }
+
+    /**
+     * Divides this polynomial by the divisor, leaving the remainder in this polynomial and writing the quotient to
+     * the given polynomial. Like Polynomial.div, the quotient has degree this.degree() - divisor.degree() even if
+     * this polynomial has leading zeros.
+     * @param divisor non zero polynomial, must not be this or quotient
+     * @param quotient polynomial to write the quotient to
+     * @return this, the trimmed remainder
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public MutablePolynomial divide(MutablePolynomial divisor, MutablePolynomial quotient) throws ArithmeticException {
+        int divisorDegree = divisor.size - 1;
+        while (divisorDegree > 0 && divisor.coefficients[divisorDegree] == 0) {
+            divisorDegree--;
+        }
+        int lead = divisor.coefficients[divisorDegree];
+        if (lead == 0)
+            throw new ArithmeticException("Division by zero polynomial");
+        int quotientLength = size - divisorDegree;
+        if (quotientLength <= 0) {
+            quotient.setZero();
+            return trim();
+        }
+        int invLead = F.modInverse(lead);
+        quotient.ensureCapacity(quotientLength);
+        quotient.size = quotientLength;
+        for (int i = quotientLength - 1; i >= 0; i--) {
+            int multiplier = F.multiply(coefficients[i + divisorDegree], invLead);
+            quotient.coefficients[i] = multiplier;
+            if (multiplier == 0)
+                continue;
+            for (int j = 0; j <= divisorDegree; j++) {
+                coefficients[i + j] = F.subtract(coefficients[i + j], F.multiply(multiplier, divisor.coefficients[j]));
+            }
+        }
+        size = Math.max(1, divisorDegree);
+        return trim();
+    }
+
+    /**
+     * Returns the result of evaluating this polynomial at point x using Horner's rule.
+     */
+    public int evaluate(int x) {
+        x = F.mod(x);
+        int res = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            res = F.add(F.multiply(res, x), coefficients[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Returns a copy of the coefficients, of length degree() + 1.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(coefficients, size);
+    }
+
+    /**
+     * Returns an immutable copy of this polynomial.
+     */
+    public Polynomial toPolynomial() {
+        return Polynomial.trusted(toArray(), F);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (coefficients.length < capacity)
+            coefficients = Arrays.copyOf(coefficients, Math.max(capacity, 2 * coefficients.length));
+    }
+
+    @Override
+    public String toString() {
+        return toPolynomial().toString();
+    }
+}
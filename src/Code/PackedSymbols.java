@@ -0,0 +1,188 @@
+package Code;
+
+public final class PackedSymbols {
+
+    private final GaloisField F;
+    private final int prime;
+    private final int laneBits;
+    private final int lanes;
+    private final int accumulationLimit;
+    /**
+     * Top bit of every lane, kept clear by every value so that lane-wise comparisons can borrow into it.
+     */
+    private final long guards;
+    /**
+     * Lowest bit of every lane, multiplying a lane value by it broadcasts the value to all lanes.
+     */
+    private final long ones;
+    /**
+     * multiples[j] holds p * 2^j in every lane, for the multiples subtracted by reduce, largest first.
+     */
+    private final long[] multiples;
+
+    /**
+     * Arithmetic on symbols of a small field packed several to a long (SWAR, SIMD within a register): symbol i of a
+     * word sits in bits [i * laneBits(), (i+1) * laneBits()), so adding two words or multiplying a word by a scalar
+     * adds or multiplies all its symbols in one machine operation. Lanes are wide enough to hold
+     * accumulationLimit() products of two symbols without carrying into the next lane, which are then reduced modulo
+     * p in all lanes at once by a few branch free conditional subtractions.
+     * Lanes are 8 bits wide up to p = 7, 16 bits up to p = 127 and 32 bits up to p = 32749.
+     * @param field the galois field Fp
+     * @throws IllegalArgumentException if two products of symbols of Fp don't fit in a 32 bit lane
+     */
+    public PackedSymbols(GaloisField field) throws IllegalArgumentException {
+        this.F = field;
+        this.prime = field.getPrime();
+        long maxProduct = Math.max(1, (long) (prime - 1) * (prime - 1));
+        int bits = 8;
+        while (bits <= 32 && ((1L << (bits - 1)) - 1) / maxProduct < 2) {
+            bits *= 2;
+        }
+        if (bits > 32)
+            throw new IllegalArgumentException("GF" + prime + " is too large for packed symbols");
+        this.laneBits = bits;
+        this.lanes = Long.SIZE / bits;
+        this.accumulationLimit = (int) (((1L << (bits - 1)) - 1) / maxProduct);
+        long laneOnes = 0;
+        for (int i = 0; i < lanes; i++) {
+            laneOnes |= 1L << (i * bits);
+        }
+        this.ones = laneOnes;
+        this.guards = laneOnes << (bits - 1);
+        int top = 0;
+        while (((long) prime << (top + 1)) < (1L << (bits - 1))) {
+            top++;
+        }
+        this.multiples = new long[top + 1];
+        for (int j = 0; j <= top; j++) {
+            multiples[j] = ((long) prime << (top - j)) * ones;
+        }
+    }
+
+    /**
+     * Returns true if symbols of the field fit at least four to a long, the point where packing pays off.
+     */
+    public static boolean worthwhile(GaloisField field) {
+        return field.getPrime() <= 128;
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    /**
+     * Returns the number of bits of a lane.
+     */
+    public int laneBits() {
+        return this.laneBits;
+    }
+
+    /**
+     * Returns the number of symbols packed in a long.
+     */
+    public int lanes() {
+        return this.lanes;
+    }
+
+    /**
+     * Returns how many products of two symbols can be accumulated into reduced lanes without overflowing them.
+     */
+    public int accumulationLimit() {
+        return this.accumulationLimit;
+    }
+
+    /**
+     * Returns the number of longs holding the given number of symbols.
+     */
+    public int words(int symbols) {
+        return (symbols + lanes - 1) / lanes;
+    }
+
+    /**
+     * Given symbols in [0, p), packs the first length of them into dest, lanes() per long. Unused lanes are zero.
+     */
+    public void pack(int[] symbols, int length, long[] dest) {
+        int words = words(length);
+        for (int w = 0; w < words; w++) {
+            long word = 0;
+            int from = w * lanes;
+            int to = Math.min(length, from + lanes);
+            for (int i = to - 1; i >= from; i--) {
+                word = (word << laneBits) | symbols[i];
+            }
+            dest[w] = word;
+        }
+    }
+
+    /**
+     * Unpacks the first length symbols of packed into dest.
+     */
+    public void unpack(long[] packed, int length, int[] dest) {
+        long mask = (1L << laneBits) - 1;
+        for (int i = 0; i < length; i++) {
+            dest[i] = (int) ((packed[i / lanes] >>> ((i % lanes) * laneBits)) & mask);
+        }
+    }
+
+    /**
+     * Returns the symbol in the given lane of a word.
+     */
+    public int get(long word, int lane) {
+        return (int) ((word >>> (lane * laneBits)) & ((1L << laneBits) - 1));
+    }
+
+    /**
+     * Given two words of reduced symbols, returns their lane-wise sum over Fp.
+     */
+    public long add(long a, long b) {
+        return subtractIfAtLeast(a + b, prime * ones);
+    }
+
+    /**
+     * Given a word of reduced symbols and a scalar, returns the lane-wise product over Fp.
+     */
+    public long multiply(long a, int c) {
+        return reduce(a * F.mod(c));
+    }
+
+    /**
+     * Adds c times the first words words of src to acc lane-wise, without reducing.
+     * @pre no more than accumulationLimit() products were accumulated into acc since it was last reduced
+     */
+    public void multiplyAccumulate(long[] acc, long[] src, int c, int words) {
+        for (int w = 0; w < words; w++) {
+            acc[w] += c * src[w];
+        }
+    }
+
+    /**
+     * Reduces every lane of a word modulo p.
+     * @param word lanes holding less than 2^(laneBits() - 1)
+     */
+    public long reduce(long word) {
+        for (long multiple : multiples) {
+            word = subtractIfAtLeast(word, multiple);
+        }
+        return word;
+    }
+
+    /**
+     * Reduces every lane of the first words words modulo p.
+     */
+    public void reduce(long[] acc, int words) {
+        for (int w = 0; w < words; w++) {
+            acc[w] = reduce(acc[w]);
+        }
+    }
+
+    /**
+     * Subtracts the lanes of m from the lanes of x which are at least as large. Setting the guard bit of every lane
+     * before subtracting keeps borrows inside the lanes, and the guard bit survives exactly in the lanes where
+     * x >= m, from which a mask of those lanes is derived.
+     */
+    private long subtractIfAtLeast(long x, long m) {
+        long geq = ((x | guards) - m) & guards;
+        long mask = geq - (geq >>> (laneBits - 1));
+        return x - (m & mask);
+    }
+}
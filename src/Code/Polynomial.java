@@ -1,32 +1,61 @@
 package Code;
 
+import java.nio.IntBuffer;
 import java.util.*;
 
 public class Polynomial {
 
     private final int[] coefficients;
     private final GaloisField F;
+    private int hash;
+    private int terms = -1;
 
     /**
      * Class to represent Polynomials over Fq for basis q.
+     * The coefficients are copied and reduced to [0, q) once, so reads never reduce them again and the polynomial
+     * can't be changed through the given array, which makes polynomials immutable and safe to share between threads.
+     * Leading zero coefficients are kept, since a polynomial also holds a vector of encoded symbols whose length is
+     * degree() + 1; the results of subtract, multiply, mod and div are trimmed.
      *
      * @param coefficients List of coefficients
      * @param field the galois field Fq
-     * @pre foreach i, coefficients[i] = coefficients[i] % basis;
      */
     public Polynomial(int[] coefficients, GaloisField field) {
-        if (coefficients.length == 0)
+        if (coefficients.length == 0) {
             this.coefficients = new int[]{0};
-        else
-            this.coefficients = coefficients;
+        } else {
+            this.coefficients = new int[coefficients.length];
+            for (int i = 0; i < coefficients.length; i++) {
+                this.coefficients[i] = field.mod(coefficients[i]);
+            }
+        }
         this.F = field;
     }
 
     public Polynomial(Polynomial other) {
-        this.coefficients = other.getCoefficients();
+        this.coefficients = other.coefficients;
         this.F = other.getField();
     }
 
+    /**
+     * Wraps an array which is already reduced to [0, q) without copying it.
+     */
+    private Polynomial(GaloisField field, int[] normalised) {
+        this.coefficients = normalised.length == 0 ? new int[]{0} : normalised;
+        this.F = field;
+    }
+
+    /**
+     * Given coefficients in [0, q) which no one else holds a reference to, returns a polynomial wrapping them without
+     * copying or reducing them.
+     * @param normalised coefficients, each in [0, q), never modified afterwards
+     * @param field the galois field Fq
+     * @return a polynomial owning the given array
+     */
+    static Polynomial trusted(int[] normalised, GaloisField field) {
+        return new Polynomial(field, normalised);
+    }
+
     public static Polynomial ZERO(GaloisField field) {
         return new Polynomial(new int[]{0}, field);
     }
@@ -43,6 +72,13 @@ public class Polynomial {
         return coefficients.length - 1;
     }
 
+    /**
+     * Returns true if this is the zero polynomial of degree 0, without allocating a ZERO polynomial to compare to.
+     */
+    private boolean isZero() {
+        return coefficients.length == 1 && coefficients[0] == 0;
+    }
+
     /**
      * Returns the field Fq this polynomial is over.
      * @return the field Fq for which this is in Fq[x]
@@ -52,11 +88,19 @@ public class Polynomial {
     }
 
     /**
-     * Returns the coefficients of the polynomial.
-     * @return an integer array of the polynomial's coefficients
+     * Returns a copy of the coefficients of the polynomial.
+     * @return an integer array of the polynomial's coefficients, each in [0, q)
      */
     public int[] getCoefficients() {
-        return coefficients;
+        return coefficients.clone();
+    }
+
+    /**
+     * Returns a read only view of the coefficients of the polynomial, without copying them.
+     * @return a read only buffer of degree() + 1 coefficients, each in [0, q)
+     */
+    public IntBuffer coefficientView() {
+        return IntBuffer.wrap(coefficients).asReadOnlyBuffer();
     }
 
     /**
@@ -67,7 +111,7 @@ public class Polynomial {
     public int getCoefficient(int degree) {
         if (degree < 0 || degree > this.degree())
             return 0;
-        return F.mod(this.coefficients[degree]);
+        return this.coefficients[degree];
     }
 
     /**
@@ -83,25 +127,11 @@ public class Polynomial {
         int[] result = new int[Math.max(this.degree(), other.degree()) + 1];
 
         // calculate subtraction
-        for (int i = 0; i <= this.degree(); i++) {
-            result[i] = F.add(result[i], this.getCoefficient(i));
-        }
-        for (int i = 0; i <= other.degree(); i++) {
-            result[i] = F.subtract(result[i], other.getCoefficient(i));
-        }
-
-        // ensure result is over basis q
-        int degreeOfResult = result.length - 1;
-        for (int i = result.length - 1; i > 0; i--) {
-            if (result[i] == 0)
-                degreeOfResult--;
-            else break;
+        System.arraycopy(this.coefficients, 0, result, 0, this.coefficients.length);
+        for (int i = 0; i < other.coefficients.length; i++) {
+            result[i] = F.subtract(result[i], other.coefficients[i]);
         }
-        if (degreeOfResult == result.length - 1)
-            return new Polynomial(result, this.F);
-
-        int[] resultOverQ = Arrays.copyOf(result, degreeOfResult + 1);
-        return new Polynomial(resultOverQ, this.F);
+        return trimmed(result, this.F);
     }
 
     /**
@@ -113,19 +143,13 @@ public class Polynomial {
      * @post result.degree() <= Math.max(this.degree(), other.degree())
      */
     public Polynomial add(Polynomial other) {
-        int[] newCoeffs = new int[Math.max(this.degree(), other.degree()) + 1];
-        for(int i = 0; i < newCoeffs.length; i++) {
-            if (i > this.degree()) {
-                newCoeffs[i] = other.getCoefficient(i);
-                continue;
-            }
-            if (i > other.degree()) {
-                newCoeffs[i] = this.getCoefficient(i);
-                continue;
-            }
-            newCoeffs[i] = F.add(this.getCoefficient(i), other.getCoefficient(i));
+        int[] longer = this.coefficients.length >= other.coefficients.length ? this.coefficients : other.coefficients;
+        int[] shorter = longer == this.coefficients ? other.coefficients : this.coefficients;
+        int[] newCoeffs = longer.clone();
+        for(int i = 0; i < shorter.length; i++) {
+            newCoeffs[i] = F.add(newCoeffs[i], shorter[i]);
         }
-        return new Polynomial(newCoeffs, this.F);
+        return trusted(newCoeffs, this.F);
     }
 
     /**
@@ -138,26 +162,53 @@ public class Polynomial {
      * @post result.degree() <= this.degree() + other.degree() + 1;
      */
     public Polynomial multiply(Polynomial other) {
+        // A sparse factor, such as a monomial or a shifted generator, only contributes its non zero terms
+        if (SparsePolynomial.isSparse(other) && other.nonZeroTerms() <= this.nonZeroTerms())
+            return SparsePolynomial.of(other).multiply(this);
+        if (SparsePolynomial.isSparse(this))
+            return SparsePolynomial.of(this).multiply(other);
+
         int[] result = new int[this.degree() + other.degree() + 1];
+        int[] otherCoeffs = other.coefficients;
         // calculate multiplication over basis q
-        for (int i = 0; i <= this.degree(); i++) {
-            for (int j = 0; j <= other.degree(); j++) {
-                result[i + j] = F.add(result[i + j], F.multiply(this.getCoefficient(i), other.getCoefficient(j)));
+        for (int i = 0; i < this.coefficients.length; i++) {
+            int c = this.coefficients[i];
+            if (c == 0)
+                continue;
+            for (int j = 0; j < otherCoeffs.length; j++) {
+                result[i + j] = F.add(result[i + j], F.multiply(c, otherCoeffs[j]));
             }
         }
+        return trimmed(result, this.F);
+    }
 
-        // ensure result is over basis q
+    /**
+     * Returns the number of non zero coefficients, counted once since polynomials are immutable.
+     */
+    int nonZeroTerms() {
+        int t = terms;
+        if (t < 0) {
+            t = 0;
+            for (int c : coefficients) {
+                if (c != 0)
+                    t++;
+            }
+            terms = t;
+        }
+        return t;
+    }
+
+    /**
+     * Returns a polynomial wrapping the given reduced coefficients with leading zeros dropped.
+     */
+    static Polynomial trimmed(int[] result, GaloisField F) {
         int degreeOfResult = result.length - 1;
-        for (int i = result.length - 1; i > 0; i--) {
-            if (result[i] == 0)
-                degreeOfResult--;
-            else break;
+        while (degreeOfResult > 0 && result[degreeOfResult] == 0) {
+            degreeOfResult--;
         }
         if (degreeOfResult == result.length - 1)
-            return new Polynomial(result, this.F);
-
-        int[] resultOverQ = Arrays.copyOf(result, degreeOfResult + 1);
-        return new Polynomial(resultOverQ, this.F);
+            return trusted(result, F);
+        return trusted(Arrays.copyOf(result, degreeOfResult + 1), F);
     }
 
     /**
@@ -177,24 +228,9 @@ public class Polynomial {
         if (divisor.degree() == 0 && divisor.getCoefficient(0) == 0)
             throw new IllegalArgumentException("Divisor can't be zero!!!!");
 
-        Polynomial dividend = new Polynomial(this.coefficients, this.F);
-        int divisorsLeadingCoefficient = divisor.getCoefficient(divisor.degree());
-
-        while(dividend.degree() >= divisor.degree()) {
-            int dividendsLeadingCoefficient = dividend.getCoefficient(dividend.degree());
-            int multiplier = this.F.div(dividendsLeadingCoefficient, divisorsLeadingCoefficient);
-            int degreeDifference = dividend.degree() - divisor.degree();
-            int[] coeffsForMultiplierPolynomial = new int[degreeDifference + 1];
-            coeffsForMultiplierPolynomial[coeffsForMultiplierPolynomial.length - 1] = multiplier;
-            Polynomial multiplierPolynomial = new Polynomial(coeffsForMultiplierPolynomial, this.F);
-            Polynomial multipliedDivisor = divisor.multiply(multiplierPolynomial);
-            dividend = dividend.subtract(multipliedDivisor);
-            if (dividend.equals(ZERO(this.F)))
-                break;
-        }
-        // dividend once completed is the remainder
-        return dividend;
-
+        int[] remainder = longDivision(divisor, null);
+        // the low divisor.degree() coefficients of the dividend once completed are the remainder
+        return trimmed(Arrays.copyOf(remainder, Math.max(1, divisor.degree())), this.F);
     }
 
 //    /**
@@ -207,43 +243,60 @@ public class Polynomial {
 //     * @post result.degree() < divisor.degree();
 //     */
     public Polynomial div(Polynomial divisor) {
-        if (divisor.equals(ZERO(this.F))) {
+        if (divisor.isZero()) {
             throw new ArithmeticException("Division by zero polynomial");
         }
 
-        Polynomial dividend = new Polynomial(this.coefficients, this.F);
-        Polynomial result = ZERO(this.F);
-        int divisorsLeadingCoefficient = divisor.getCoefficient(divisor.degree());
-
-        while(dividend.degree() >= divisor.degree()) {
-            int dividendsLeadingCoefficient = dividend.getCoefficient(dividend.degree());
-            int multiplier = this.F.div(dividendsLeadingCoefficient, divisorsLeadingCoefficient);
-            int degreeDifference = dividend.degree() - divisor.degree();
-            int[] coeffsForMultiplierPolynomial = new int[degreeDifference + 1];
-            coeffsForMultiplierPolynomial[coeffsForMultiplierPolynomial.length - 1] = multiplier;
-            Polynomial multiplierPolynomial = new Polynomial(coeffsForMultiplierPolynomial, this.F);
-            Polynomial multipliedDivisor = divisor.multiply(multiplierPolynomial);
-            dividend = dividend.subtract(multipliedDivisor);
-            result = result.add(multiplierPolynomial);
-            if (dividend.equals(ZERO(this.F)))
-                break;
+        if (this.degree() < divisor.degree())
+            return ZERO(this.F);
+
+        int[] result = new int[this.degree() - divisor.degree() + 1];
+        longDivision(divisor, result);
+        // the dividend may have leading zeros, which leave leading zeros in the quotient
+        return trimmed(result, this.F);
+    }
+
+    /**
+     * Long division of this polynomial by the divisor. Every step subtracts the monomial multiplier * x^i times the
+     * divisor from a single working copy of the dividend, walking only the non zero terms of the divisor, instead of
+     * building the monomial as a dense polynomial and multiplying it through.
+     * @param divisor polynomial of degree <= this.degree()
+     * @param quotient array of length this.degree() - divisor.degree() + 1 to write the quotient to, or null
+     * @return the working copy of the dividend, whose first divisor.degree() coefficients are the remainder
+     * @throws IllegalArgumentException if the leading coefficient of the divisor is 0
+     */
+    private int[] longDivision(Polynomial divisor, int[] quotient) throws IllegalArgumentException {
+        int divisorDegree = divisor.degree();
+        int inverseOfLeadingCoefficient = F.div(1, divisor.coefficients[divisorDegree]);
+        SparsePolynomial divisorTerms = SparsePolynomial.of(divisor);
+        int[] dividend = coefficients.clone();
+        for (int i = dividend.length - 1 - divisorDegree; i >= 0; i--) {
+            int multiplier = F.multiply(dividend[i + divisorDegree], inverseOfLeadingCoefficient);
+            if (quotient != null)
+                quotient[i] = multiplier;
+            if (multiplier == 0)
+                continue;
+            for (int t = 0; t < divisorTerms.terms(); t++) {
+                int j = i + divisorTerms.exponent(t);
+                dividend[j] = F.subtract(dividend[j], F.multiply(multiplier, divisorTerms.termCoefficient(t)));
+            }
         }
-        return result;
+        return dividend;
     }
 
 
     /**
-     * Returns the result of evaluating this polynomial at point x, modulo q.
+     * Returns the result of evaluating this polynomial at point x, modulo q, using Horner's rule.
      * @param x the value of the point to evaluate this polynomial at.
      * @return result of the evaluation of this polynomial at point x.
      */
     public int evaluatePolynomial(int x) {
         x = this.F.mod(x);
         int res = 0;
-        for(int i = 0; i <= this.degree(); i++) {
-            res = res + this.getCoefficient(i) * (int)Math.pow(x,i);
+        for(int i = this.degree(); i >= 0; i--) {
+            res = F.add(F.multiply(res, x), this.coefficients[i]);
         }
-        return this.F.mod(res);
+        return res;
     }
 
     @Override
@@ -278,7 +331,7 @@ public class Polynomial {
         for (Polynomial p : c) {
             if (!p.getField().equals(this.F))
                 continue;
-            if (Arrays.equals(this.coefficients, p.getCoefficients()))
+            if (Arrays.equals(this.coefficients, p.coefficients))
                 return true;
         }
         return false;
@@ -293,7 +346,7 @@ public class Polynomial {
         for (Polynomial p : arr) {
             if (!(p.getField().equals(this.F)))
                 continue;
-            if (Arrays.equals(this.coefficients, p.getCoefficients()))
+            if (Arrays.equals(this.coefficients, p.coefficients))
                 return true;
         }
         return false;
@@ -305,12 +358,20 @@ public class Polynomial {
         if (other == null || getClass() != other.getClass()) return false;
         Polynomial that = (Polynomial) other;
         if (!(this.F.equals(that.getField())) || this.degree() != that.degree()) return false;
-        int k = this.degree() + 1;
-        for(int i = 0; i < k; i++) {
-            if (that.getCoefficient(i) != this.getCoefficient(i))
-                return false;
+        return Arrays.equals(this.coefficients, that.coefficients);
+    }
+
+    /**
+     * Returns a hash code consistent with equals, computed once since polynomials are immutable.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * F.hashCode() + Arrays.hashCode(coefficients);
+            hash = h;
         }
-        return true;
+        return h;
     }
 
 }
\ No newline at end of file
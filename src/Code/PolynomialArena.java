@@ -0,0 +1,74 @@
+package Code;
+
+import java.util.Arrays;
+
+public class PolynomialArena {
+
+    private static final ThreadLocal<PolynomialArena> LOCAL = ThreadLocal.withInitial(PolynomialArena::new);
+
+    private MutablePolynomial[] pool = new MutablePolynomial[8];
+    private int top = 0;
+
+    /**
+     * Returns the arena of the current thread.
+     * Polynomials are handed out in stack order, a computation takes a mark before allocating and releases it once
+     * done, after which the same polynomials are handed out again to the next computation:
+     * <pre>
+     * int mark = arena.mark();
+     * try {
+     *     MutablePolynomial p = arena.allocate(F, n);
+     *     ...
+     * } finally {
+     *     arena.release(mark);
+     * }
+     * </pre>
+     * @return the polynomial arena of the calling thread
+     */
+    public static PolynomialArena get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Returns the current top of the arena, to be passed to release.
+     */
+    public int mark() {
+        return top;
+    }
+
+    /**
+     * Returns a zero polynomial over the given field, reusing a pooled polynomial if one is free.
+     * @param field the field of the polynomial
+     * @param capacity expected number of coefficients, the polynomial grows past it if needed
+     * @return a zero polynomial owned by the caller until the enclosing mark is released
+     */
+    public MutablePolynomial allocate(GaloisField field, int capacity) {
+        if (top == pool.length)
+            pool = Arrays.copyOf(pool, 2 * pool.length);
+        MutablePolynomial p = pool[top];
+        if (p == null) {
+            p = new MutablePolynomial(field, capacity);
+            pool[top] = p;
+        }
+        top++;
+        return p.reset(field);
+    }
+
+    /**
+     * Returns every polynomial allocated since the given mark to the arena.
+     * @param mark value returned by mark()
+     */
+    public void release(int mark) {
+        top = mark;
+    }
+
+    /**
+     * Returns the number of polynomials the arena created so far.
+     */
+    public int pooled() {
+        int count = 0;
+        while (count < pool.length && pool[count] != null) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,194 @@
+package Code;
+
+import java.util.stream.IntStream;
+
+public class ProductCode {
+
+    /**
+     * Number of row and column passes decode makes unless chosen otherwise.
+     */
+    public static final int DEFAULT_ITERATIONS = 4;
+
+    private final RSCodec rowCode;
+    private final RSCodec columnCode;
+
+    /**
+     * Two dimensional product of two Reed-Solomon codes: k2 x k1 message symbols are laid out in a grid, every row is
+     * encoded with the row code into n1 symbols, then every one of the n1 columns is encoded with the column code
+     * into n2 symbols. By linearity the parity rows are codewords of the row code as well, so the n2 x n1 codeword is
+     * a grid whose rows and columns all are codewords, of length n1 * n2 and minimum distance d1 * d2.
+     * A burst of corrupted symbols hits few rows or few columns, so short component codes decoded iteratively
+     * correct much longer bursts than their own length.
+     * @param rowCode (n1, k1) code applied to the rows
+     * @param columnCode (n2, k2) code applied to the columns, over the same field
+     * @throws IllegalArgumentException if the codes are over different fields
+     */
+    public ProductCode(RSCodec rowCode, RSCodec columnCode) throws IllegalArgumentException {
+        if (!rowCode.getField().equals(columnCode.getField()))
+            throw new IllegalArgumentException("Row and column codes must be over the same field");
+        this.rowCode = rowCode;
+        this.columnCode = columnCode;
+    }
+
+    public RSCodec getRowCode() {
+        return this.rowCode;
+    }
+
+    public RSCodec getColumnCode() {
+        return this.columnCode;
+    }
+
+    /**
+     * Returns the number of rows of a codeword, n2.
+     */
+    public int rows() {
+        return columnCode.length();
+    }
+
+    /**
+     * Returns the number of columns of a codeword, n1.
+     */
+    public int columns() {
+        return rowCode.length();
+    }
+
+    /**
+     * Returns the number of symbols of a codeword, n1 * n2.
+     */
+    public int length() {
+        return rows() * columns();
+    }
+
+    /**
+     * Returns the number of message symbols, k1 * k2.
+     */
+    public int dimension() {
+        return rowCode.dimension() * columnCode.dimension();
+    }
+
+    /**
+     * Given k2 rows of k1 message symbols, writes the n2 x n1 codeword, the message being the top left k2 x k1
+     * corner. Rows are encoded in parallel, and the columns are encoded all at once with encodeStriped.
+     * @param data k2 rows of k1 symbols, each in [0, p)
+     * @param codeword n2 rows of n1 symbols to write the codeword to
+     */
+    public void encode(int[][] data, int[][] codeword) {
+        int k2 = columnCode.dimension();
+        IntStream.range(0, k2).parallel().forEach(r -> rowCode.encode(data[r], codeword[r]));
+        int[][] dataRows = new int[k2][];
+        int[][] parityRows = new int[rows() - k2][];
+        System.arraycopy(codeword, 0, dataRows, 0, k2);
+        System.arraycopy(codeword, k2, parityRows, 0, parityRows.length);
+        columnCode.encodeStriped(dataRows, parityRows, columns());
+    }
+
+    /**
+     * Same as decode(int[][], int[][], int) with DEFAULT_ITERATIONS passes.
+     */
+    public int decode(int[][] received, int[][] data) {
+        return decode(received, data, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Given an n2 x n1 received grid, decodes the message iteratively: all rows are decoded in parallel, then all
+     * columns with the rows which failed to decode as erasures, then the rows again with the columns which failed as
+     * erasures, and so on until every row and column is a codeword. Each pass removes errors the other pass couldn't
+     * handle, so patterns far beyond the capacity of a single component code are corrected, such as whole corrupted
+     * rows and columns. When a word has more erasures than its code can fill, it is decoded from all its symbols.
+     * @param received n2 rows of n1 symbols, left unchanged
+     * @param data k2 rows of k1 symbols to write the message to
+     * @param iterations largest number of row and column passes
+     * @return the number of corrected symbols, or -1 if some row or column still isn't a codeword after the given
+     * number of passes
+     */
+    public int decode(int[][] received, int[][] data, int iterations) {
+        int n1 = columns();
+        int n2 = rows();
+        int k1 = rowCode.dimension();
+        int k2 = columnCode.dimension();
+        int[][] grid = new int[n2][];
+        for (int r = 0; r < n2; r++) {
+            grid[r] = received[r].clone();
+        }
+        boolean[] rowFailed = new boolean[n2];
+        boolean[] columnFailed = new boolean[n1];
+        boolean decoded = false;
+        for (int pass = 0; pass < iterations && !decoded; pass++) {
+            boolean[] columnsPresent = present(columnFailed, rowCode);
+            IntStream.range(0, n2).parallel().forEach(r ->
+                    rowFailed[r] = !decodeWord(rowCode, grid[r], columnsPresent));
+
+            boolean[] rowsPresent = present(rowFailed, columnCode);
+            IntStream.range(0, n1).parallel().forEach(c -> {
+                int[] column = new int[n2];
+                for (int r = 0; r < n2; r++) {
+                    column[r] = grid[r][c];
+                }
+                columnFailed[c] = !decodeWord(columnCode, column, rowsPresent);
+                if (!columnFailed[c]) {
+                    for (int r = 0; r < n2; r++) {
+                        grid[r][c] = column[r];
+                    }
+                }
+            });
+
+            decoded = true;
+            for (int c = 0; c < n1 && decoded; c++) {
+                decoded = !columnFailed[c];
+            }
+            // the columns are codewords, the grid is one if the message rows are as well
+            for (int r = 0; r < k2 && decoded; r++) {
+                decoded = rowCode.isCodeword(grid[r]);
+            }
+        }
+        if (!decoded)
+            return -1;
+
+        int corrected = 0;
+        for (int r = 0; r < n2; r++) {
+            for (int c = 0; c < n1; c++) {
+                if (grid[r][c] != received[r][c])
+                    corrected++;
+            }
+        }
+        for (int r = 0; r < k2; r++) {
+            System.arraycopy(grid[r], 0, data[r], 0, k1);
+        }
+        return corrected;
+    }
+
+    /**
+     * Returns which symbols of a word are present given which words of the other dimension failed, or null if there
+     * are no failures or more than the code can fill.
+     */
+    private static boolean[] present(boolean[] failed, RSCodec code) {
+        int erasures = 0;
+        for (boolean f : failed) {
+            if (f)
+                erasures++;
+        }
+        if (erasures == 0 || erasures > code.length() - code.dimension())
+            return null;
+        boolean[] present = new boolean[failed.length];
+        for (int i = 0; i < failed.length; i++) {
+            present[i] = !failed[i];
+        }
+        return present;
+    }
+
+    /**
+     * Decodes a word of a component code in place, replacing it by the nearest codeword.
+     * @return false if the word could not be decoded, in which case it is left unchanged
+     */
+    private static boolean decodeWord(RSCodec code, int[] word, boolean[] present) {
+        if (code.isCodeword(word))
+            return true;
+        int[] message = new int[code.dimension()];
+        int corrected = present == null ? code.decode(word, message) : code.decode(word, present, message);
+        if (corrected < 0)
+            return false;
+        System.arraycopy(message, 0, word, 0, message.length);
+        code.computeParity(message, word, message.length);
+        return true;
+    }
+}
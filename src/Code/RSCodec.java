@@ -0,0 +1,828 @@
+package Code;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public class RSCodec {
+
+    private final GaloisField F;
+    private final int n;
+    private final int k;
+    private final int symbolBytes;
+    private final EvaluationPoints evaluationPoints;
+    private final int[] points;
+    private final int[][] parityMatrix;
+    /**
+     * Packed arithmetic used by encodeStriped for fields small enough to pack four symbols or more in a long, null
+     * otherwise.
+     */
+    private final PackedSymbols packed;
+
+    private final DecodeMatrixCache decodeMatrices;
+
+    /**
+     * Number of symbols of every shard processed in a single pass over the encoding matrix.
+     */
+    public static final int STRIPE = 4096;
+    /**
+     * Number of inverted decode matrices cached by each codec.
+     */
+    public static final int DECODE_CACHE_SIZE = 64;
+
+    /**
+     * Precomputed systematic Reed-Solomon code over Fp, the codeword of a message is the evaluation of the polynomial
+     * of degree < k which interpolates the message symbols at the first k evaluation points, over all n evaluation
+     * points. This is the same code produced by RSEncoder_L, with the encoding work moved into the constructor so
+     * that the codec can be reused for many blocks.
+     * The evaluation points are 0, 1, ..., n-1.
+     * @param field the galois field Fp to operate over
+     * @param n length of a codeword
+     * @param k length of a message
+     * @throws IllegalArgumentException if 0 < k < n <= p doesn't hold
+     */
+    public RSCodec(GaloisField field, int n, int k) throws IllegalArgumentException {
+        this(EvaluationPoints.consecutive(field, n), k);
+    }
+
+    /**
+     * Same as RSCodec(GaloisField, int, int) over the given evaluation points, symbol i of a codeword being the
+     * evaluation at points.point(i).
+     * @param points n distinct evaluation points, their field is the field of the code
+     * @param k length of a message
+     * @throws IllegalArgumentException if 0 < k < n doesn't hold
+     */
+    public RSCodec(EvaluationPoints points, int k) throws IllegalArgumentException {
+        this(points, k, null);
+    }
+
+    /**
+     * Same as RSCodec(EvaluationPoints, int) reusing a parity matrix computed earlier, used by CodecSnapshot to restore
+     * codecs without recomputing them.
+     * @param parityMatrix the (n-k) x k parity matrix of the code, or null to compute it
+     */
+    RSCodec(EvaluationPoints points, int k, int[][] parityMatrix) throws IllegalArgumentException {
+        int n = points.size();
+        if (k <= 0 || n <= k)
+            throw new IllegalArgumentException("Expected 0 < k < n, got n = " + n + ", k = " + k);
+        this.F = points.getField();
+        this.n = n;
+        this.k = k;
+        this.symbolBytes = symbolBytes(F);
+        this.evaluationPoints = points;
+        this.points = points.toArray();
+        this.parityMatrix = parityMatrix != null ? parityMatrix : computeParityMatrix();
+        this.packed = PackedSymbols.worthwhile(F) ? new PackedSymbols(F) : null;
+        this.decodeMatrices = new DecodeMatrixCache(DECODE_CACHE_SIZE);
+    }
+
+    /**
+     * Computes the (n-k) x k matrix whose row r holds the lagrange basis polynomials of the first k points evaluated at
+     * point k+r, so that parity symbol r is the dot product of row r with the message.
+     * @return the parity part of the systematic generator matrix
+     */
+    private int[][] computeParityMatrix() {
+        int[][] matrix = new int[n - k][k];
+        for (int j = 0; j < k; j++) {
+            int denominator = 1;
+            for (int m = 0; m < k; m++) {
+                if (m != j)
+                    denominator = F.multiply(denominator, F.subtract(points[j], points[m]));
+            }
+            int invDenominator = F.modInverse(denominator);
+            for (int r = 0; r < n - k; r++) {
+                int x = points[k + r];
+                int numerator = invDenominator;
+                for (int m = 0; m < k; m++) {
+                    if (m != j)
+                        numerator = F.multiply(numerator, F.subtract(x, points[m]));
+                }
+                matrix[r][j] = numerator;
+            }
+        }
+        return matrix;
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    /**
+     * Returns the parity matrix without copying it.
+     */
+    int[][] parityMatrix() {
+        return this.parityMatrix;
+    }
+
+    /**
+     * Returns the evaluation points of the code.
+     */
+    public EvaluationPoints getEvaluationPoints() {
+        return this.evaluationPoints;
+    }
+
+    /**
+     * Returns the length of a codeword.
+     * @return n
+     */
+    public int length() {
+        return this.n;
+    }
+
+    /**
+     * Returns the length of a message.
+     * @return k
+     */
+    public int dimension() {
+        return this.k;
+    }
+
+    /**
+     * Returns the maximal number of symbol errors the codec can correct within a single codeword.
+     * @return (n-k)/2
+     */
+    public int maxErrors() {
+        return (n - k) / 2;
+    }
+
+    /**
+     * Returns the number of bytes needed to store a single symbol of the field, which is the width used whenever
+     * codeword symbols are serialized.
+     * @return number of bytes needed to represent p-1
+     */
+    public int symbolBytes() {
+        return this.symbolBytes;
+    }
+
+    /**
+     * Given a field Fp, returns the number of bytes needed to store a single symbol of the field.
+     * @param field the galois field Fp
+     * @return number of bytes needed to represent p-1
+     */
+    public static int symbolBytes(GaloisField field) {
+        int bits = 32 - Integer.numberOfLeadingZeros(field.getPrime() - 1);
+        return Math.max(1, (bits + 7) / 8);
+    }
+
+    /**
+     * Given a message of k symbols, writes its codeword into the given array, the first k symbols being the message
+     * itself followed by n-k parity symbols.
+     * @param data message symbols
+     * @param codeword array of length >= n to write the codeword to
+     * @pre foreach i, 0 <= data[i] < p
+     */
+    public void encode(int[] data, int[] codeword) {
+        long start = CodecMetrics.start();
+        System.arraycopy(data, 0, codeword, 0, k);
+        computeParity(data, codeword, k);
+        CodecMetrics.stage(CodecMetrics.Stage.ENCODE, start);
+        CodecMetrics.encoded(1);
+    }
+
+    /**
+     * Given the parity symbols of a codeword whose data symbol at the given index changed from oldValue to newValue,
+     * updates the parity symbols in place. Parity is linear in the data, so parity symbol r changes by
+     * parityMatrix[r][index] * (newValue - oldValue), which takes n-k multiplications instead of a full re-encode.
+     * @param index index of the changed data symbol, in [0, k)
+     * @param oldValue previous value of the data symbol
+     * @param newValue new value of the data symbol
+     * @param parity array holding the n-k parity symbols, updated in place
+     * @throws IllegalArgumentException if index isn't a data index
+     */
+    public void updateParity(int index, int oldValue, int newValue, int[] parity) throws IllegalArgumentException {
+        if (index < 0 || index >= k)
+            throw new IllegalArgumentException("Data index " + index + " is out of [0, " + k + ")");
+        int delta = F.subtract(newValue, oldValue);
+        if (delta == 0)
+            return;
+        for (int r = 0; r < n - k; r++) {
+            parity[r] = F.add(parity[r], F.multiply(parityMatrix[r][index], delta));
+        }
+    }
+
+    /**
+     * Computes the n-k parity symbols of the message and writes them to dest starting at the given offset.
+     * Unlike encode it records nothing in CodecMetrics, for decoders rebuilding the codeword they corrected.
+     */
+    void computeParity(int[] data, int[] dest, int offset) {
+        long q = F.getPrime();
+        for (int r = 0; r < n - k; r++) {
+            int[] row = parityMatrix[r];
+            long acc = 0;
+            for (int j = 0; j < k; j++) {
+                acc = (acc + (long) row[j] * data[j]) % q;
+            }
+            dest[offset + r] = (int) acc;
+        }
+    }
+
+    /**
+     * Given received symbols, returns true if they form a codeword.
+     * @param received array of at least n symbols
+     * @return true if the parity symbols match the message symbols
+     */
+    public boolean isCodeword(int[] received) {
+        int[] parity = new int[n - k];
+        computeParity(received, parity, 0);
+        for (int r = 0; r < n - k; r++) {
+            if (parity[r] != received[k + r])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Given n received symbols, decodes the message using the Berlekamp-Welch algorithm and writes it into data.
+     * @param received array of at least n symbols, each in [0, p)
+     * @param data array of length >= k to write the decoded message to
+     * @return the number of corrected symbols, or -1 if the received word is further than (n-k)/2 from any codeword
+     */
+    public int decode(int[] received, int[] data) {
+        int corrected = decodeWord(received, data);
+        CodecMetrics.decoded(corrected);
+        return corrected;
+    }
+
+    /**
+     * Given n received symbols of which some are erased, decodes the message from the symbols which are present using
+     * the Berlekamp-Welch algorithm and writes it into data. The present symbols form a Reed-Solomon code of length
+     * n - f over the same message, so f erasures and t errors are corrected as long as 2t + f <= n - k.
+     * @param received array of at least n symbols, erased symbols may hold any value
+     * @param present present[i] is false if symbol i is erased
+     * @param data array of length >= k to write the decoded message to
+     * @return the number of corrected present symbols, or -1 if the present symbols are further than (n-f-k)/2 from
+     * any codeword or fewer than k symbols are present
+     */
+    public int decode(int[] received, boolean[] present, int[] data) {
+        int[] positions = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (present[i])
+                positions[count++] = i;
+        }
+        int corrected;
+        if (count == n)
+            corrected = decodeWord(received, data);
+        else if (count < k)
+            corrected = -1;
+        else
+            corrected = decodeWord(received, positions, count, data);
+        CodecMetrics.decoded(corrected);
+        return corrected;
+    }
+
+    private int decodeWord(int[] received, int[] data) {
+        long start = CodecMetrics.start();
+        if (isCodeword(received)) {
+            System.arraycopy(received, 0, data, 0, k);
+            return 0;
+        }
+        CodecMetrics.stage(CodecMetrics.Stage.SETUP, start);
+        return decodeWord(received, null, n, data);
+    }
+
+    /**
+     * Berlekamp-Welch over the symbols at the given positions, all n symbols if positions is null.
+     */
+    private int decodeWord(int[] received, int[] positions, int count, int[] data) {
+        long start = CodecMetrics.start();
+        int e = (count - k) / 2;
+        if (e == 0 && positions == null)
+            return -1;
+
+        // Unknowns are Q_0...Q_{e+k-1} followed by E_0...E_{e-1}, E being monic of degree e,
+        // each point gives the equation Q(x_i) - y_i * E(x_i) = 0
+        int unknowns = 2 * e + k;
+        int[][] equations = new int[count][unknowns];
+        int[] result = new int[count];
+        int[][] powers = evaluationPoints.powerTable(e + k - 1);
+        for (int t = 0; t < count; t++) {
+            int i = positions == null ? t : positions[t];
+            int minusY = F.subtract(0, received[i]);
+            System.arraycopy(powers[i], 0, equations[t], 0, e + k);
+            for (int j = 0; j < e; j++) {
+                equations[t][e + k + j] = F.multiply(minusY, powers[i][j]);
+            }
+            result[t] = F.multiply(received[i], powers[i][e]);
+        }
+        start = CodecMetrics.stage(CodecMetrics.Stage.MATRIX_BUILD, start);
+        int[] values = F.solveLinearSystem(equations, result);
+        start = CodecMetrics.stage(CodecMetrics.Stage.ELIMINATION, start);
+        if (values == null)
+            return -1;
+
+        PolynomialArena arena = PolynomialArena.get();
+        int mark = arena.mark();
+        try {
+            MutablePolynomial Q = arena.allocate(F, e + k).set(values, 0, e + k);
+            MutablePolynomial E = arena.allocate(F, e + 1).set(values, e + k, e).setCoefficient(e, 1);
+            MutablePolynomial message = arena.allocate(F, k);
+            // Q becomes the remainder, the message has degree < k since Q has degree < e + k
+            boolean exact = Q.divide(E, message).isZero();
+            CodecMetrics.stage(CodecMetrics.Stage.POLYNOMIAL_DIVISION, start);
+            if (!exact)
+                return -1;
+
+            int corrected = 0;
+            for (int t = 0; t < count; t++) {
+                int i = positions == null ? t : positions[t];
+                if (message.evaluate(points[i]) != received[i])
+                    corrected++;
+            }
+            if (corrected > e)
+                return -1;
+            for (int j = 0; j < k; j++) {
+                data[j] = message.evaluate(points[j]);
+            }
+            return corrected;
+        } finally {
+            arena.release(mark);
+        }
+    }
+
+    /**
+     * Given n received symbols, returns every message whose codeword is within the Guruswami-Sudan radius of the
+     * received word, which may hold more than (n-k)/2 errors.
+     * @param received array of at least n symbols
+     * @return the candidate messages of k symbols each, ordered by increasing distance, empty if there are none
+     * @throws IllegalArgumentException if k < 2
+     */
+    public List<int[]> listDecode(int[] received) throws IllegalArgumentException {
+        List<int[]> res = new ArrayList<>();
+        for (Polynomial f : new ListDecoder(F, points, k).decode(Arrays.copyOf(received, n))) {
+            int[] data = new int[k];
+            for (int j = 0; j < k; j++) {
+                data[j] = f.evaluatePolynomial(points[j]);
+            }
+            res.add(data);
+        }
+        return res;
+    }
+
+    /**
+     * Given k rows of message symbols, encodes every column of the rows and writes the parity symbols of column i to
+     * column i of the parity rows. Instead of encoding each column on its own, each coefficient of the encoding matrix
+     * multiplies a whole data row and is accumulated into a parity row, so the work is k * (n-k) long row operations.
+     * Over fields up to GF127 the rows are packed with PackedSymbols first, so every row operation handles four or
+     * eight symbols per long.
+     * @param data k rows of symbols, each symbol in [0, p)
+     * @param parity n-k rows to write the parity symbols to
+     * @param length number of columns to encode
+     */
+    public void encodeStriped(int[][] data, int[][] parity, int length) {
+        if (packed != null)
+            multiplyPackedRows(parityMatrix, data, parity, length);
+        else
+            multiplyRows(parityMatrix, data, parity, length, new long[length]);
+    }
+
+    /**
+     * Same as multiplyRows with the rows packed lanes() symbols per long.
+     */
+    private void multiplyPackedRows(int[][] matrix, int[][] src, int[][] dest, int length) {
+        int words = packed.words(length);
+        long[][] packedSrc = new long[src.length][words];
+        for (int j = 0; j < src.length; j++) {
+            packed.pack(src[j], length, packedSrc[j]);
+        }
+        int limit = packed.accumulationLimit();
+        long[] acc = new long[words];
+        for (int r = 0; r < matrix.length; r++) {
+            int[] row = matrix[r];
+            Arrays.fill(acc, 0);
+            int pending = 0;
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] == 0)
+                    continue;
+                if (++pending > limit) {
+                    packed.reduce(acc, words);
+                    pending = 2;
+                }
+                packed.multiplyAccumulate(acc, packedSrc[j], row[j], words);
+            }
+            packed.reduce(acc, words);
+            packed.unpack(acc, length, dest[r]);
+        }
+    }
+
+    /**
+     * Multiplies a matrix by rows of symbols, dest[r][i] = sum_j matrix[r][j] * src[j][i] modulo p.
+     * Products are accumulated without reduction for as long as they fit in a long.
+     */
+    private void multiplyRows(int[][] matrix, int[][] src, int[][] dest, int length, long[] acc) {
+        int limit = F.accumulationLimit();
+        for (int r = 0; r < matrix.length; r++) {
+            int[] row = matrix[r];
+            Arrays.fill(acc, 0, length, 0);
+            int pending = 0;
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] == 0)
+                    continue;
+                if (++pending > limit) {
+                    F.reduce(acc, length);
+                    pending = 1;
+                }
+                F.multiplyAccumulate(acc, src[j], row[j], length);
+            }
+            F.reduce(acc, length);
+            for (int i = 0; i < length; i++) {
+                dest[r][i] = (int) acc[i];
+            }
+        }
+    }
+
+    /**
+     * Given k data shards and n-k parity shards, encodes every byte column of the data shards and writes the parity
+     * symbols straight into the parity shards, without copying the data into intermediate polynomials.
+     * Symbol j of a data shard is its j'th byte, symbol j of a parity shard is stored big endian in
+     * symbolBytes() bytes starting at byte j * symbolBytes().
+     * Shards are read and written from their current position, and positions are left unchanged, so direct and
+     * memory mapped buffers can be used as is. The shards are encoded STRIPE columns at a time with encodeStriped.
+     * @param data k buffers holding the same number of remaining bytes
+     * @param parity n-k buffers with room for symbolBytes() bytes for every data byte
+     * @throws IllegalArgumentException if the field is smaller than GF257 or the shards don't match the code
+     */
+    public void encode(ByteBuffer[] data, ByteBuffer[] parity) throws IllegalArgumentException {
+        int length = checkShards(data, parity);
+        int[][] dataRows = new int[k][STRIPE];
+        int[][] parityRows = new int[n - k][STRIPE];
+        long[] acc = new long[STRIPE];
+        byte[] bytes = new byte[STRIPE * symbolBytes];
+        for (int from = 0; from < length; from += STRIPE) {
+            long start = CodecMetrics.start();
+            int len = Math.min(STRIPE, length - from);
+            for (int i = 0; i < k; i++) {
+                loadSymbols(data[i], 1, from, len, dataRows[i], bytes);
+            }
+            multiplyRows(parityMatrix, dataRows, parityRows, len, acc);
+            for (int r = 0; r < n - k; r++) {
+                storeSymbols(parity[r], symbolBytes, from, len, parityRows[r], bytes);
+            }
+            CodecMetrics.stage(CodecMetrics.Stage.ENCODE, start);
+            CodecMetrics.encoded(len);
+        }
+    }
+
+    /**
+     * Given the old and new content of a rewritten data shard, updates the parity shards in place as
+     * updateParity(int, int, int, int[]) does for every byte column, reading only the changed shard and the parity
+     * instead of the whole stripe.
+     * A partial overwrite is handled by passing slices of the old and new data holding only the changed bytes, with
+     * the parity shards positioned at the symbol of the first changed byte.
+     * @param index index of the changed data shard, in [0, k)
+     * @param oldData previous content of the changed bytes
+     * @param newData new content of the changed bytes, with as many remaining bytes as oldData
+     * @param parity n-k buffers with room for symbolBytes() bytes for every changed byte
+     * @throws IllegalArgumentException if the field is smaller than GF257, index isn't a data index or the buffers
+     * don't match
+     */
+    public void updateParity(int index, ByteBuffer oldData, ByteBuffer newData, ByteBuffer[] parity)
+            throws IllegalArgumentException {
+        if (F.getPrime() <= 0xFF)
+            throw new IllegalArgumentException("Byte shards require a field larger than GF" + 0xFF);
+        if (index < 0 || index >= k)
+            throw new IllegalArgumentException("Data index " + index + " is out of [0, " + k + ")");
+        if (parity.length != n - k)
+            throw new IllegalArgumentException("Expected " + (n - k) + " parity shards");
+        int length = oldData.remaining();
+        if (newData.remaining() != length)
+            throw new IllegalArgumentException("Old and new data must have the same length");
+        for (ByteBuffer shard : parity) {
+            if (shard.remaining() < (long) length * symbolBytes)
+                throw new IllegalArgumentException("Parity shards must hold " + symbolBytes + " bytes per symbol");
+        }
+        int[] oldRow = new int[STRIPE];
+        int[] delta = new int[STRIPE];
+        int[] parityRow = new int[STRIPE];
+        byte[] bytes = new byte[STRIPE * symbolBytes];
+        long q = F.getPrime();
+        for (int from = 0; from < length; from += STRIPE) {
+            long start = CodecMetrics.start();
+            int len = Math.min(STRIPE, length - from);
+            loadSymbols(oldData, 1, from, len, oldRow, bytes);
+            loadSymbols(newData, 1, from, len, delta, bytes);
+            for (int i = 0; i < len; i++) {
+                delta[i] = F.subtract(delta[i], oldRow[i]);
+            }
+            for (int r = 0; r < n - k; r++) {
+                long c = parityMatrix[r][index];
+                if (c == 0)
+                    continue;
+                loadSymbols(parity[r], symbolBytes, from, len, parityRow, bytes);
+                for (int i = 0; i < len; i++) {
+                    parityRow[i] = (int) ((parityRow[i] + c * delta[i]) % q);
+                }
+                storeSymbols(parity[r], symbolBytes, from, len, parityRow, bytes);
+            }
+            CodecMetrics.stage(CodecMetrics.Stage.ENCODE, start);
+        }
+    }
+
+    /**
+     * Given k data shards and n-k parity shards, as written by encode(ByteBuffer[], ByteBuffer[]), corrects up to
+     * (n-k)/2 symbol errors in every byte column in place.
+     * Clean columns are detected in bulk by re-encoding whole stripes, only columns whose parity doesn't match are
+     * decoded one by one.
+     * @param data k buffers holding the same number of remaining bytes
+     * @param parity n-k buffers holding symbolBytes() bytes for every data byte
+     * @return the number of corrected symbols, or -1 if some column could not be decoded, in which case the columns
+     * preceding it have already been corrected
+     * @throws IllegalArgumentException if the field is smaller than GF257 or the shards don't match the code
+     */
+    public int decode(ByteBuffer[] data, ByteBuffer[] parity) throws IllegalArgumentException {
+        int length = checkShards(data, parity);
+        int[][] dataRows = new int[k][STRIPE];
+        int[][] parityRows = new int[n - k][STRIPE];
+        int[][] expectedRows = new int[n - k][STRIPE];
+        long[] acc = new long[STRIPE];
+        byte[] bytes = new byte[STRIPE * symbolBytes];
+        int[] received = new int[n];
+        int[] message = new int[k];
+        int[] codeword = new int[n];
+        int corrected = 0;
+        for (int from = 0; from < length; from += STRIPE) {
+            int len = Math.min(STRIPE, length - from);
+            for (int i = 0; i < k; i++) {
+                loadSymbols(data[i], 1, from, len, dataRows[i], bytes);
+            }
+            for (int r = 0; r < n - k; r++) {
+                loadSymbols(parity[r], symbolBytes, from, len, parityRows[r], bytes);
+            }
+            multiplyRows(parityMatrix, dataRows, expectedRows, len, acc);
+            int cleanColumns = 0;
+            for (int j = 0; j < len; j++) {
+                boolean clean = true;
+                for (int r = 0; r < n - k && clean; r++) {
+                    clean = expectedRows[r][j] == parityRows[r][j];
+                }
+                if (clean) {
+                    cleanColumns++;
+                    continue;
+                }
+                for (int i = 0; i < k; i++) {
+                    received[i] = dataRows[i][j];
+                }
+                for (int r = 0; r < n - k; r++) {
+                    received[k + r] = parityRows[r][j];
+                }
+                int errors = decode(received, message);
+                if (errors < 0)
+                    return -1;
+                for (int i = 0; i < k; i++) {
+                    if (message[i] > 0xFF)
+                        return -1;
+                }
+                // re-encoded without going through encode, which would count the column as an encoded word
+                System.arraycopy(message, 0, codeword, 0, k);
+                computeParity(message, codeword, k);
+                for (int i = 0; i < k; i++) {
+                    data[i].put(data[i].position() + from + j, (byte) codeword[i]);
+                }
+                for (int r = 0; r < n - k; r++) {
+                    putSymbol(parity[r], from + j, codeword[k + r]);
+                }
+                corrected += errors;
+            }
+            CodecMetrics.decodedClean(cleanColumns);
+        }
+        return corrected;
+    }
+
+    /**
+     * Returns the n x k systematic generator matrix of the code, the first k rows being the identity matrix and the
+     * rest the parity matrix, such that codeword[i] = sum_j G[i][j] * data[j].
+     * @return a copy of the generator matrix
+     */
+    public int[][] generatorMatrix() {
+        int[][] generator = new int[n][];
+        for (int i = 0; i < k; i++) {
+            generator[i] = new int[k];
+            generator[i][i] = 1;
+        }
+        for (int r = 0; r < n - k; r++) {
+            generator[k + r] = parityMatrix[r].clone();
+        }
+        return generator;
+    }
+
+    /**
+     * Given the indices of k surviving symbols of a codeword, returns the k x k matrix which maps the surviving
+     * symbols to the message, the inverse of the rows of the generator matrix of the survivors.
+     * Inverses are cached by the bitmask of the survivors, so repeated recoveries from the same failure pattern
+     * don't invert the matrix again.
+     * @param survivors k distinct indices in [0, n), in increasing order
+     * @return matrix M such that data[i] = sum_s M[i][s] * codeword[survivors[s]], which must not be modified
+     * @throws IllegalArgumentException if survivors doesn't hold k distinct increasing indices
+     */
+    public int[][] reconstructionMatrix(int[] survivors) throws IllegalArgumentException {
+        if (survivors.length != k)
+            throw new IllegalArgumentException("Expected " + k + " surviving symbols, got " + survivors.length);
+        BitSet mask = new BitSet(n);
+        for (int s = 0; s < k; s++) {
+            if (survivors[s] < 0 || survivors[s] >= n || (s > 0 && survivors[s] <= survivors[s - 1]))
+                throw new IllegalArgumentException("Surviving indices must be distinct, increasing and below n");
+            mask.set(survivors[s]);
+        }
+        int[][] matrix = decodeMatrices.get(mask);
+        if (matrix != null)
+            return matrix;
+
+        int[][] submatrix = new int[k][];
+        for (int s = 0; s < k; s++) {
+            submatrix[s] = survivors[s] < k ? unitRow(survivors[s]) : parityMatrix[survivors[s] - k];
+        }
+        matrix = F.invertMatrix(submatrix);
+        decodeMatrices.put(mask, matrix);
+        return matrix;
+    }
+
+    /**
+     * Returns the cache of inverted decode matrices.
+     * @return the decode matrix cache of this codec
+     */
+    public DecodeMatrixCache getDecodeMatrixCache() {
+        return this.decodeMatrices;
+    }
+
+    private int[] unitRow(int i) {
+        int[] row = new int[k];
+        row[i] = 1;
+        return row;
+    }
+
+    /**
+     * Given a codeword of which at least k symbols are present, fills in the missing symbols in place.
+     * @param codeword n symbols, missing symbols may hold any value
+     * @param present present[i] is true if codeword[i] is known to be correct
+     * @throws IllegalArgumentException if fewer than k symbols are present
+     */
+    public void reconstruct(int[] codeword, boolean[] present) throws IllegalArgumentException {
+        int[] survivors = new int[k];
+        int count = 0;
+        for (int i = 0; i < n && count < k; i++) {
+            if (present[i])
+                survivors[count++] = i;
+        }
+        if (count < k)
+            throw new IllegalArgumentException("At least " + k + " symbols are needed, got " + count);
+        int[] data = new int[k];
+        if (survivors[k - 1] == k - 1) {
+            System.arraycopy(codeword, 0, data, 0, k);
+        } else {
+            int[][] matrix = reconstructionMatrix(survivors);
+            long q = F.getPrime();
+            for (int i = 0; i < k; i++) {
+                long acc = 0;
+                for (int s = 0; s < k; s++) {
+                    acc = (acc + (long) matrix[i][s] * codeword[survivors[s]]) % q;
+                }
+                data[i] = (int) acc;
+            }
+        }
+        int[] parity = new int[n - k];
+        computeParity(data, parity, 0);
+        for (int i = 0; i < n; i++) {
+            if (!present[i])
+                codeword[i] = i < k ? data[i] : parity[i - k];
+        }
+    }
+
+    /**
+     * Given the n shards of a codeword as written by encode(ByteBuffer[], ByteBuffer[]), of which at least k are
+     * present, rebuilds the missing data shards from the first k present shards.
+     * Missing parity shards are rebuilt as well if a buffer is given for them.
+     * @param shards n buffers, data shards first, a missing data shard must be a writable buffer of the same length
+     * as the other data shards, a missing parity shard may be null
+     * @param present present[i] is true if shards[i] holds valid content
+     * @throws IllegalArgumentException if fewer than k shards are present or the shards don't match the code
+     */
+    public void reconstruct(ByteBuffer[] shards, boolean[] present) throws IllegalArgumentException {
+        if (shards.length != n || present.length != n)
+            throw new IllegalArgumentException("Expected " + n + " shards");
+        int[] survivors = new int[k];
+        int count = 0;
+        for (int i = 0; i < n && count < k; i++) {
+            if (present[i])
+                survivors[count++] = i;
+        }
+        if (count < k)
+            throw new IllegalArgumentException("At least " + k + " shards are needed, got " + count);
+        int length = survivors[0] < k ? shards[survivors[0]].remaining()
+                : shards[survivors[0]].remaining() / symbolBytes;
+
+        // Rows of the reconstruction matrix for the missing data shards only
+        int missingData = 0;
+        for (int i = 0; i < k; i++) {
+            if (!present[i])
+                missingData++;
+        }
+        int[] missing = new int[missingData];
+        int[][] matrix = new int[missingData][];
+        if (missingData > 0) {
+            int[][] full = reconstructionMatrix(survivors);
+            for (int i = 0, m = 0; i < k; i++) {
+                if (!present[i]) {
+                    missing[m] = i;
+                    matrix[m++] = full[i];
+                }
+            }
+        }
+        int missingParity = 0;
+        for (int r = k; r < n; r++) {
+            if (!present[r] && shards[r] != null)
+                missingParity++;
+        }
+
+        int[][] rows = new int[k][STRIPE];
+        int[][] rebuilt = new int[Math.max(missingData, n - k)][STRIPE];
+        long[] acc = new long[STRIPE];
+        byte[] bytes = new byte[STRIPE * symbolBytes];
+        for (int from = 0; from < length; from += STRIPE) {
+            int len = Math.min(STRIPE, length - from);
+            if (missingData > 0) {
+                for (int s = 0; s < k; s++) {
+                    int index = survivors[s];
+                    loadSymbols(shards[index], index < k ? 1 : symbolBytes, from, len, rows[s], bytes);
+                }
+                multiplyRows(matrix, rows, rebuilt, len, acc);
+                for (int m = 0; m < missingData; m++) {
+                    storeSymbols(shards[missing[m]], 1, from, len, rebuilt[m], bytes);
+                }
+            }
+            if (missingParity > 0) {
+                for (int i = 0; i < k; i++) {
+                    loadSymbols(shards[i], 1, from, len, rows[i], bytes);
+                }
+                multiplyRows(parityMatrix, rows, rebuilt, len, acc);
+                for (int r = k; r < n; r++) {
+                    if (!present[r] && shards[r] != null)
+                        storeSymbols(shards[r], symbolBytes, from, len, rebuilt[r - k], bytes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates the shards against this code.
+     * @return the number of symbols in each shard
+     */
+    private int checkShards(ByteBuffer[] data, ByteBuffer[] parity) throws IllegalArgumentException {
+        if (F.getPrime() <= 0xFF)
+            throw new IllegalArgumentException("Byte shards require a field larger than GF" + 0xFF);
+        if (data.length != k || parity.length != n - k)
+            throw new IllegalArgumentException("Expected " + k + " data shards and " + (n - k) + " parity shards");
+        int length = data[0].remaining();
+        for (ByteBuffer shard : data) {
+            if (shard.remaining() != length)
+                throw new IllegalArgumentException("Data shards must have the same length");
+        }
+        for (ByteBuffer shard : parity) {
+            if (shard.remaining() < (long) length * symbolBytes())
+                throw new IllegalArgumentException("Parity shards must hold " + symbolBytes() + " bytes per symbol");
+        }
+        return length;
+    }
+
+    /**
+     * Reads len symbols of the given width, starting at symbol from of the shard, into row.
+     * Symbols are reduced modulo p since a corrupted symbol may exceed the field.
+     */
+    private void loadSymbols(ByteBuffer shard, int width, int from, int len, int[] row, byte[] bytes) {
+        shard.get(shard.position() + from * width, bytes, 0, len * width);
+        if (width == 1) {
+            for (int i = 0; i < len; i++) {
+                row[i] = bytes[i] & 0xFF;
+            }
+            return;
+        }
+        for (int i = 0, pos = 0; i < len; i++) {
+            int symbol = 0;
+            for (int b = 0; b < width; b++) {
+                symbol = (symbol << 8) | (bytes[pos++] & 0xFF);
+            }
+            row[i] = F.mod(symbol);
+        }
+    }
+
+    /**
+     * Writes len symbols of the given width from row to the shard, starting at symbol from.
+     */
+    private void storeSymbols(ByteBuffer shard, int width, int from, int len, int[] row, byte[] bytes) {
+        for (int i = 0, pos = 0; i < len; i++) {
+            for (int b = width - 1; b >= 0; b--) {
+                bytes[pos++] = (byte) (row[i] >>> (8 * b));
+            }
+        }
+        shard.put(shard.position() + from * width, bytes, 0, len * width);
+    }
+
+    private void putSymbol(ByteBuffer shard, int index, int symbol) {
+        int width = symbolBytes;
+        int offset = shard.position() + index * width;
+        for (int b = 0; b < width; b++) {
+            shard.put(offset + b, (byte) (symbol >>> (8 * (width - 1 - b))));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package Code;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class RSInputStream extends FilterInputStream {
+
+    private final RSCodec codec;
+    private final int depth;
+    private final int symbolBytes;
+    private final byte[] encodedBlock;
+    private final int[][] codewords;
+    private final int[] block;
+    private int position = 0;
+    private int available = 0;
+    private boolean endOfData = false;
+    private long correctedSymbols = 0;
+
+    /**
+     * Input stream which reads data written by an RSOutputStream with the same codec and interleaving depth,
+     * correcting up to (n-k)/2 symbol errors in each codeword.
+     * Only a single interleaved block is held in memory at any time.
+     * @param in underlying stream of encoded data
+     * @param codec the code each block was encoded with
+     * @param depth number of interleaved codewords in each block
+     * @throws IllegalArgumentException if the field of the codec is smaller than GF257 or depth < 1
+     */
+    public RSInputStream(InputStream in, RSCodec codec, int depth) throws IllegalArgumentException {
+        super(in);
+        if (codec.getField().getPrime() <= RSOutputStream.END_OF_DATA)
+            throw new IllegalArgumentException("Byte streams require a field larger than GF" + RSOutputStream.END_OF_DATA);
+        if (depth < 1)
+            throw new IllegalArgumentException("Interleaving depth must be positive");
+        this.codec = codec;
+        this.depth = depth;
+        this.symbolBytes = codec.symbolBytes();
+        this.encodedBlock = new byte[depth * codec.length() * symbolBytes];
+        this.codewords = new int[depth][codec.length()];
+        this.block = new int[depth * codec.dimension()];
+    }
+
+    /**
+     * Returns the number of symbols corrected so far.
+     * @return total number of symbol errors corrected in the blocks read
+     */
+    public long getCorrectedSymbols() {
+        return correctedSymbols;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == available && !fill())
+            return -1;
+        return block[position++];
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        if (len == 0)
+            return 0;
+        if (position == available && !fill())
+            return -1;
+        int count = Math.min(len, available - position);
+        for (int i = 0; i < count; i++) {
+            b[off + i] = (byte) block[position++];
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (position == available && !fill())
+                break;
+            int count = (int) Math.min(n - skipped, available - position);
+            position += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return available - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * Reads and decodes the next block.
+     * @return false if the end of the data has been reached
+     * @throws IOException if the underlying stream fails, is truncated or a codeword can't be decoded
+     */
+    private boolean fill() throws IOException {
+        if (endOfData)
+            return false;
+        int read = in.readNBytes(encodedBlock, 0, encodedBlock.length);
+        if (read < encodedBlock.length)
+            throw new IOException("Truncated stream, expected " + encodedBlock.length + " bytes but got " + read);
+
+        int n = codec.length();
+        int k = codec.dimension();
+        GaloisField F = codec.getField();
+        int pos = 0;
+        for (int j = 0; j < n; j++) {
+            for (int d = 0; d < depth; d++) {
+                int symbol = 0;
+                for (int b = 0; b < symbolBytes; b++) {
+                    symbol = (symbol << 8) | (encodedBlock[pos++] & 0xFF);
+                }
+                codewords[d][j] = F.mod(symbol);
+            }
+        }
+        int[] message = new int[k];
+        for (int d = 0; d < depth; d++) {
+            int corrected = codec.decode(codewords[d], message);
+            if (corrected < 0)
+                throw new IOException("Uncorrectable codeword, more than " + codec.maxErrors() + " symbol errors");
+            correctedSymbols += corrected;
+            System.arraycopy(message, 0, block, d * k, k);
+        }
+
+        available = block.length;
+        for (int i = 0; i < block.length; i++) {
+            if (block[i] == RSOutputStream.END_OF_DATA) {
+                available = i;
+                endOfData = true;
+                break;
+            }
+            if (block[i] > 0xFF)
+                throw new IOException("Corrupted block, decoded symbol " + block[i] + " is not a byte");
+        }
+        for (int i = available + 1; i < block.length; i++) {
+            if (block[i] != 0)
+                throw new IOException("Corrupted block, non zero padding after the end of the data");
+        }
+        position = 0;
+        return available > 0 || fill();
+    }
+}
@@ -0,0 +1,122 @@
+package Code;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class RSOutputStream extends FilterOutputStream {
+
+    /**
+     * Symbol marking the end of the data within the last block, it can never appear as a data symbol since bytes are
+     * in [0, 255].
+     */
+    static final int END_OF_DATA = 256;
+
+    private final RSCodec codec;
+    private final int depth;
+    private final int symbolBytes;
+    private final int[] block;
+    private final int[][] codewords;
+    private final byte[] encodedBlock;
+    private int filled = 0;
+    private boolean closed = false;
+
+    /**
+     * Output stream which splits the written bytes into messages of k symbols, encodes each message into a codeword of
+     * n symbols and writes the codewords to the underlying stream interleaved $depth$ at a time, so that a burst of
+     * corrupted bytes is spread over $depth$ different codewords.
+     * Each symbol is written big endian using codec.symbolBytes() bytes.
+     * @param out underlying stream to write the encoded data to
+     * @param codec the code to encode each block with
+     * @param depth number of codewords to interleave
+     * @throws IllegalArgumentException if the field of the codec is smaller than GF257 or depth < 1
+     */
+    public RSOutputStream(OutputStream out, RSCodec codec, int depth) throws IllegalArgumentException {
+        super(out);
+        if (codec.getField().getPrime() <= END_OF_DATA)
+            throw new IllegalArgumentException("Byte streams require a field larger than GF" + END_OF_DATA);
+        if (depth < 1)
+            throw new IllegalArgumentException("Interleaving depth must be positive");
+        this.codec = codec;
+        this.depth = depth;
+        this.symbolBytes = codec.symbolBytes();
+        this.block = new int[depth * codec.dimension()];
+        this.codewords = new int[depth][codec.length()];
+        this.encodedBlock = new byte[depth * codec.length() * symbolBytes];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[filled++] = b & 0xFF;
+        if (filled == block.length)
+            writeBlock();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int i = off; i < off + len; i++) {
+            block[filled++] = b[i] & 0xFF;
+            if (filled == block.length)
+                writeBlock();
+        }
+    }
+
+    /**
+     * Flushes the underlying stream, a partially filled block is only written once it fills up or on close.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Terminates the data with the end marker, pads and writes the last block and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            block[filled++] = END_OF_DATA;
+            while (filled < block.length) {
+                block[filled++] = 0;
+            }
+            writeBlock();
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        int k = codec.dimension();
+        int n = codec.length();
+        int[] message = new int[k];
+        for (int d = 0; d < depth; d++) {
+            System.arraycopy(block, d * k, message, 0, k);
+            codec.encode(message, codewords[d]);
+        }
+        // Interleave, symbol j of every codeword before symbol j + 1 of any of them
+        int pos = 0;
+        for (int j = 0; j < n; j++) {
+            for (int d = 0; d < depth; d++) {
+                int symbol = codewords[d][j];
+                for (int b = symbolBytes - 1; b >= 0; b--) {
+                    encodedBlock[pos++] = (byte) (symbol >>> (8 * b));
+                }
+            }
+        }
+        out.write(encodedBlock, 0, pos);
+        filled = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+    }
+}
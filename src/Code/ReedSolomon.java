@@ -1,12 +1,24 @@
 package Code;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReedSolomon {
 
+    /**
+     * Primitive element of every prime it was computed or restored for.
+     */
+    private static final Map<Integer, Integer> PRIMITIVE_ELEMENTS = new ConcurrentHashMap<>();
+    /**
+     * Generator polynomial of every (p, n, k) it was computed or restored for.
+     */
+    private static final Map<List<Integer>, Polynomial> GENERATOR_POLYNOMIALS = new ConcurrentHashMap<>();
+
     /**
      * Given a message polynomial and desired length of encryption, uses Reed-Solomon to encrypt the message and
      * generate the encoded message, a list of encoded symbols and a generator polynomial for Fq.
@@ -24,8 +36,10 @@ public class ReedSolomon {
         GaloisField F = msg.getField();
 
         int q = F.getPrime();
+        long start = CodecMetrics.start();
         Polynomial generatorPolynomial = ReedSolomon.computeGeneratorPolynomial(F, n, k);
         int alpha = ReedSolomon.findPrimitiveElement(F);
+        start = CodecMetrics.stage(CodecMetrics.Stage.SETUP, start);
 
         int[] symbolsArr = new int[n];
         for (int i = 0; i < n; i++) {
@@ -36,6 +50,8 @@ public class ReedSolomon {
         Polynomial encodedMsg = msg.multiply(generatorPolynomial);
         Polynomial encodedSymbols = new Polynomial(symbolsArr, F);
         Polynomial constantK = new Polynomial(new int[]{k}, F);
+        CodecMetrics.stage(CodecMetrics.Stage.ENCODE, start);
+        CodecMetrics.encoded(1);
 
         List<Polynomial> res = new LinkedList<>();
         res.add(encodedMsg);
@@ -50,11 +66,14 @@ public class ReedSolomon {
         int k = msg.degree() + 1;
         GaloisField F = msg.getField();
 
+        long start = CodecMetrics.start();
         Polynomial generatorPolynomial = ReedSolomon.computeGeneratorPolynomial(F, n, k);
+        start = CodecMetrics.stage(CodecMetrics.Stage.SETUP, start);
 
         int[][] coords = Interpolation.getInterpolationCoordinates(msg, new LinkedList<>());
         int[] lagrangeCoeffs = Interpolation.lagrangeInterpolation(coords, F);
         Polynomial L = new Polynomial(lagrangeCoeffs, F);
+        start = CodecMetrics.stage(CodecMetrics.Stage.INTERPOLATION, start);
 
         int[] symbolsArr = new int[n];
         for (int i = 0; i < n; i++) {
@@ -64,6 +83,8 @@ public class ReedSolomon {
         Polynomial encodedMsg = msg.multiply(generatorPolynomial);
         Polynomial encodedSymbols = new Polynomial(symbolsArr, F);
         Polynomial constantK = new Polynomial(new int[]{k}, F);
+        CodecMetrics.stage(CodecMetrics.Stage.ENCODE, start);
+        CodecMetrics.encoded(1);
 
         List<Polynomial> res = new LinkedList<>();
         res.add(encodedMsg);
@@ -86,6 +107,7 @@ public class ReedSolomon {
         int q = F.getPrime();
 
         int maxNumOfErrors = (n - k) / 2;
+        long start = CodecMetrics.start();
 
         int[][] equations = new int[n][n];
         int[] values;
@@ -96,6 +118,7 @@ public class ReedSolomon {
         for(int i = 0; i < n; i++) {
             result[i] = F.mod(((int)Math.pow(i, 2) * (-1) * symbols.getCoefficient(i)));
         }
+        start = CodecMetrics.stage(CodecMetrics.Stage.SETUP, start);
         // Generate the linear equations coefficients based on the Berlekamp-Welch algorithm
         for(int i = 0; i < n; i++) {
             for(int j = 0; j < n; j++) {
@@ -108,23 +131,35 @@ public class ReedSolomon {
             }
         }
 
+        start = CodecMetrics.stage(CodecMetrics.Stage.MATRIX_BUILD, start);
         values = F.gaussianElimination(equations, result);
-        int currentNumOfErrors = maxNumOfErrors;
-        for(;currentNumOfErrors > 0; currentNumOfErrors--) {
-            int[] errorCoeffs = Arrays.copyOfRange(values, 0, currentNumOfErrors);
-            errorCoeffs = Arrays.copyOf(errorCoeffs, currentNumOfErrors + 1);
-            errorCoeffs[currentNumOfErrors] = 1;
-            Polynomial E = new Polynomial(errorCoeffs, F);
-
-            int[] Qcoeffs = Arrays.copyOfRange(values, currentNumOfErrors, values.length);
-            Polynomial Q = new Polynomial(Qcoeffs, F);
-
-//            System.out.println("Q: " + Q + "\nE: " + E);
-
-            if (Q.mod(E).equals(Polynomial.ZERO(F))) {
-                return Q.div(E);
+        start = CodecMetrics.stage(CodecMetrics.Stage.ELIMINATION, start);
+        // E, Q and M are reused for every number of errors tried
+        PolynomialArena arena = PolynomialArena.get();
+        int mark = arena.mark();
+        try {
+            MutablePolynomial E = arena.allocate(F, maxNumOfErrors + 1);
+            MutablePolynomial Q = arena.allocate(F, n);
+            MutablePolynomial M = arena.allocate(F, n);
+            int currentNumOfErrors = maxNumOfErrors;
+            for(;currentNumOfErrors > 0; currentNumOfErrors--) {
+                E.set(values, 0, currentNumOfErrors).setCoefficient(currentNumOfErrors, 1);
+                Q.set(values, currentNumOfErrors, values.length - currentNumOfErrors);
+
+                // Q becomes the remainder of Q / E
+                if (Q.divide(E, M).isZero()) {
+                    Polynomial msg = M.toPolynomial();
+                    CodecMetrics.stage(CodecMetrics.Stage.POLYNOMIAL_DIVISION, start);
+                    if (CodecMetrics.ENABLED)
+                        CodecMetrics.decoded(countErrors(symbols, msg));
+                    return msg;
+                }
             }
+        } finally {
+            arena.release(mark);
         }
+        CodecMetrics.stage(CodecMetrics.Stage.POLYNOMIAL_DIVISION, start);
+        CodecMetrics.decoded(-1);
         // Can't correct errors, return null
         return null;
     }
@@ -135,6 +170,7 @@ public class ReedSolomon {
         int q = F.getPrime();
 
         int maxNumOfErrors = (n - k) / 2;
+        long start = CodecMetrics.start();
 
         int[][] equations = new int[n][n];
         int[] values;
@@ -145,6 +181,7 @@ public class ReedSolomon {
         for(int i = 0; i < n; i++) {
             result[i] = F.mod(((int)Math.pow(i, 2) * (-1) * symbols.getCoefficient(i)));
         }
+        start = CodecMetrics.stage(CodecMetrics.Stage.SETUP, start);
         // Generate the linear equations coefficients based on the Berlekamp-Welch algorithm
         for(int i = 0; i < n; i++) {
             for(int j = 0; j < n; j++) {
@@ -157,49 +194,90 @@ public class ReedSolomon {
             }
         }
 
+        start = CodecMetrics.stage(CodecMetrics.Stage.MATRIX_BUILD, start);
         values = F.gaussianElimination(equations, result);
-        int currentNumOfErrors = maxNumOfErrors;
-        Polynomial Q, E = null, M = null;
-
-        for(;currentNumOfErrors > 0; currentNumOfErrors--) {
-            int[] errorCoeffs = Arrays.copyOfRange(values, 0, currentNumOfErrors);
-            errorCoeffs = Arrays.copyOf(errorCoeffs, currentNumOfErrors + 1);
-            errorCoeffs[currentNumOfErrors] = 1;
-            E = new Polynomial(errorCoeffs, F);
-
-            int[] Qcoeffs = Arrays.copyOfRange(values, currentNumOfErrors, values.length);
-            Q = new Polynomial(Qcoeffs, F);
-
-            if (Q.mod(E).equals(Polynomial.ZERO(F))) {
-                M = Q.div(E);
-                break;
+        start = CodecMetrics.stage(CodecMetrics.Stage.ELIMINATION, start);
+        PolynomialArena arena = PolynomialArena.get();
+        int mark = arena.mark();
+        try {
+            MutablePolynomial E = arena.allocate(F, maxNumOfErrors + 1);
+            MutablePolynomial Q = arena.allocate(F, n);
+            MutablePolynomial M = arena.allocate(F, n);
+            int currentNumOfErrors = maxNumOfErrors;
+
+            for(;currentNumOfErrors > 0; currentNumOfErrors--) {
+                E.set(values, 0, currentNumOfErrors).setCoefficient(currentNumOfErrors, 1);
+                Q.set(values, currentNumOfErrors, values.length - currentNumOfErrors);
+
+                if (Q.divide(E, M).isZero())
+                    break;
+            }
+            start = CodecMetrics.stage(CodecMetrics.Stage.POLYNOMIAL_DIVISION, start);
+            // no error locator divided Q, the symbols have more errors than the code corrects
+            boolean failed = currentNumOfErrors == 0 && maxNumOfErrors > 0;
+            List<Integer> errorIndices = new LinkedList<>();
+            if (currentNumOfErrors > 0) {
+                int[] roots = new int[currentNumOfErrors];
+                int found = RootFinder.consecutiveRoots(E.toPolynomial(), 0, n, roots);
+                for (int i = 0; i < found; i++) {
+                    errorIndices.add(roots[i]);
+                }
             }
+            int[][] coordsOfSymbols = Interpolation.getInterpolationCoordinates(symbols, errorIndices);
+//            System.out.println("Error indices: " + errorIndices);
+//            System.out.println("coords of symbols:\n" + Arrays.deepToString(coordsOfSymbols));
+            MutablePolynomial lagrangeOfSymbols = arena.allocate(F, coordsOfSymbols.length);
+            Interpolation.lagrangeInterpolation(coordsOfSymbols, F, lagrangeOfSymbols);
+//            System.out.println("LAGRANGE OF SYMBOLS: " + lagrangeOfSymbols);
+            int[] originalMessageCoeffs = new int[k];
+            for(int i = 0; i < k; i++) {
+                originalMessageCoeffs[i] = lagrangeOfSymbols.evaluate(i);
+            }
+            CodecMetrics.stage(CodecMetrics.Stage.INTERPOLATION, start);
+            CodecMetrics.decoded(failed ? -1 : errorIndices.size());
+            return new Polynomial(originalMessageCoeffs, F);
+        } finally {
+            arena.release(mark);
         }
-        Polynomial correctedSymbols;
-        List<Integer> errorIndices = new LinkedList<>();
-        if (currentNumOfErrors > 0) {
-             for(int i = 0; i < n; i++) {
-                 if (E.evaluatePolynomial(i) == 0)
-                     errorIndices.add(i);
-             }
-             int[] symbolsArr = symbols.getCoefficients();
-             for(int index : errorIndices) {
-                 symbolsArr[index] = M.evaluatePolynomial(index);
-             }
-             correctedSymbols = new Polynomial(symbolsArr, F);
+    }
+
+    /**
+     * Given a polynomial of encoded symbols and the original message length k, returns every message polynomial whose
+     * encoding is within the Guruswami-Sudan radius of the symbols, which goes beyond the (n-k)/2 errors uniqueDecoder
+     * can correct. The multiplicity of the interpolation points is chosen to maximize the radius.
+     * @param symbols Encoded symbols polynomial, symbol i being the evaluation of the message at i
+     * @param k length of the original message, at least 2
+     * @return the candidate messages ordered by increasing distance, empty if there are none
+     * @throws IllegalArgumentException if k < 2 or k >= n
+     */
+    public static List<Polynomial> listDecoder(Polynomial symbols, int k) throws IllegalArgumentException {
+        return listDecoder(symbols, k, ListDecoder.bestMultiplicity(symbols.degree() + 1, k));
+    }
+
+    /**
+     * Same as listDecoder(Polynomial, int) with the given multiplicity, 1 being Sudan's algorithm.
+     */
+    public static List<Polynomial> listDecoder(Polynomial symbols, int k, int multiplicity)
+            throws IllegalArgumentException {
+        int n = symbols.degree() + 1;
+        int[] points = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = i;
         }
-        else correctedSymbols = symbols;
-        int[][] coordsOfSymbols = Interpolation.getInterpolationCoordinates(symbols, errorIndices);
-//        System.out.println("Error indices: " + errorIndices);
-//        System.out.println("coords of symbols:\n" + Arrays.deepToString(coordsOfSymbols));
-        int[] lagrangeCoeffsOfSymbols = Interpolation.lagrangeInterpolation(coordsOfSymbols, F);
-        Polynomial lagrangeOfSymbols = new Polynomial(lagrangeCoeffsOfSymbols, F);
-//        System.out.println("LAGRANGE OF SYMBOLS: " + lagrangeOfSymbols);
-        int[] originalMessageCoeffs = new int[k];
-        for(int i = 0; i < k; i++) {
-            originalMessageCoeffs[i] = lagrangeOfSymbols.evaluatePolynomial(i);
+        return new ListDecoder(symbols.getField(), points, k, multiplicity).decode(symbols.getCoefficients());
+    }
+
+    /**
+     * Given received symbols and a decoded message polynomial, returns the number of symbols the message disagrees
+     * with.
+     */
+    private static int countErrors(Polynomial symbols, Polynomial msg) {
+        int errors = 0;
+        for (int i = 0; i <= symbols.degree(); i++) {
+            if (msg.evaluatePolynomial(i) != symbols.getCoefficient(i))
+                errors++;
         }
-        return new Polynomial(originalMessageCoeffs, F);
+        return errors;
     }
 
     public static String printMatrix(int[][] mat) {
@@ -216,9 +294,21 @@ public class ReedSolomon {
      * @param F the Galois Field to calculate over
      * @param n the length of the encoded message
      * @param k the length of the original message
-     * @return the generator polynomial of field Fq over (n,k)
+     * @return the generator polynomial of field Fq over (n,k), cached per (q, n, k)
      */
     public static Polynomial computeGeneratorPolynomial(GaloisField F, int n, int k) {
+        return GENERATOR_POLYNOMIALS.computeIfAbsent(List.of(F.getPrime(), n, k),
+                key -> generatorPolynomial(F, n, k));
+    }
+
+    /**
+     * Seeds the generator polynomial cache, used by CodecSnapshot.
+     */
+    static void cacheGeneratorPolynomial(GaloisField F, int n, int k, Polynomial generator) {
+        GENERATOR_POLYNOMIALS.putIfAbsent(List.of(F.getPrime(), n, k), generator);
+    }
+
+    private static Polynomial generatorPolynomial(GaloisField F, int n, int k) {
         int[] alphaPowers = new int[n - k];
         int alpha = ReedSolomon.findPrimitiveElement(F);
 
@@ -255,32 +345,56 @@ public class ReedSolomon {
      * @return value of base^exponent % mod
      */
     public static int powerModQ(int base, int exponent, GaloisField F) {
-        int mod = F.getPrime();
         int result = 1;
+        base = F.mod(base);
         while (exponent > 0) {
             if (exponent % 2 == 1) {
-                result = (result * base) % mod;
+                result = F.multiply(result, base);
             }
-            base = (base * base) % mod;
+            base = F.multiply(base, base);
             exponent /= 2;
         }
         return result;
     }
 
+    /**
+     * Returns the smallest primitive element of Fq, an element whose powers run over every non zero element.
+     * g is primitive iff g^((q-1)/r) != 1 for every prime factor r of q-1. Results are cached per prime.
+     * @param F the Galois Field to search
+     * @return the smallest primitive element greater than 1, or -1 if there is none
+     */
     public static int findPrimitiveElement(GaloisField F) {
+        return PRIMITIVE_ELEMENTS.computeIfAbsent(F.getPrime(), q -> primitiveElement(F));
+    }
+
+    /**
+     * Seeds the primitive element cache, used by CodecSnapshot.
+     */
+    static void cachePrimitiveElement(GaloisField F, int element) {
+        PRIMITIVE_ELEMENTS.putIfAbsent(F.getPrime(), element);
+    }
+
+    private static int primitiveElement(GaloisField F) {
         int q = F.getPrime();
-        for(int i = 2; i < q; i++) {
-            boolean[] nonZeroElements = new boolean[q];
-            nonZeroElements[0] = true;
-            nonZeroElements[i] = true;
+        List<Integer> factors = new ArrayList<>();
+        int rest = q - 1;
+        for (int r = 2; (long) r * r <= rest; r++) {
+            if (rest % r == 0) {
+                factors.add(r);
+                while (rest % r == 0) {
+                    rest /= r;
+                }
+            }
+        }
+        if (rest > 1)
+            factors.add(rest);
+        for (int i = 2; i < q; i++) {
             boolean found = true;
-            for(int j = 2; j < q; j++) {
-                int pow = (int)Math.pow(i, j) % q;
-                if (nonZeroElements[pow]) {
+            for (int r : factors) {
+                if (powerModQ(i, (q - 1) / r, F) == 1) {
                     found = false;
                     break;
                 }
-                nonZeroElements[pow] = true;
             }
             if (found)
                 return i;
@@ -0,0 +1,168 @@
+package Code;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class RootFinder {
+
+    /**
+     * Fields up to this size are searched exhaustively by findRoots, larger fields are factored with Cantor-Zassenhaus.
+     */
+    public static final int SCAN_LIMIT = 1 << 12;
+
+    /**
+     * Given a polynomial and a range of consecutive points start, start+1, ..., start+count-1, writes the points which
+     * are roots of the polynomial into roots. Instead of evaluating the polynomial at every point, the first d+1
+     * values are turned into a table of forward differences, and each step to the next point updates the table with d
+     * additions, since the d'th difference of a polynomial of degree d is constant.
+     * @param p a polynomial of degree d
+     * @param start first point
+     * @param count number of points to search
+     * @param roots buffer to write the roots to in increasing order, at most roots.length are written
+     * @return the number of roots written
+     */
+    public static int consecutiveRoots(Polynomial p, int start, int count, int[] roots) {
+        GaloisField F = p.getField();
+        int d = p.degree();
+        int[] differences = new int[d + 1];
+        for (int j = 0; j <= d; j++) {
+            differences[j] = p.evaluatePolynomial(start + j);
+        }
+        // differences[j] becomes the j'th forward difference at start
+        for (int j = 1; j <= d; j++) {
+            for (int i = d; i >= j; i--) {
+                differences[i] = F.subtract(differences[i], differences[i - 1]);
+            }
+        }
+        int found = 0;
+        for (int i = 0; i < count && found < roots.length; i++) {
+            if (differences[0] == 0)
+                roots[found++] = F.mod(start + i);
+            for (int j = 0; j < d; j++) {
+                differences[j] = F.add(differences[j], differences[j + 1]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Chien search, given a polynomial and a primitive element alpha writes the exponents i in [0, count) for which
+     * alpha^i is a root of the polynomial into roots. The value of term j at alpha^i is kept and multiplied by alpha^j
+     * to step to alpha^(i+1).
+     * @param p a polynomial
+     * @param alpha element whose powers are searched
+     * @param count number of powers to search
+     * @param roots buffer to write the exponents to in increasing order, at most roots.length are written
+     * @return the number of exponents written
+     */
+    public static int powerRoots(Polynomial p, int alpha, int count, int[] roots) {
+        GaloisField F = p.getField();
+        int d = p.degree();
+        int[] terms = p.getCoefficients();
+        int[] steps = new int[d + 1];
+        steps[0] = 1;
+        for (int j = 1; j <= d; j++) {
+            steps[j] = F.multiply(steps[j - 1], alpha);
+        }
+        int found = 0;
+        for (int i = 0; i < count && found < roots.length; i++) {
+            int sum = 0;
+            for (int j = 0; j <= d; j++) {
+                sum = F.add(sum, terms[j]);
+                terms[j] = F.multiply(terms[j], steps[j]);
+            }
+            if (sum == 0)
+                roots[found++] = i;
+        }
+        return found;
+    }
+
+    /**
+     * Given a non zero polynomial, writes its distinct roots in Fp into roots in increasing order.
+     * Small fields are searched exhaustively with consecutiveRoots. In larger fields the product of the distinct
+     * linear factors g = gcd(f, x^p - x) is split by Cantor-Zassenhaus equal degree factorization: for a random d,
+     * gcd(g, (x + d)^((p-1)/2) - 1) holds the roots r for which r + d is a square, which is about half of them.
+     * @param p a non zero polynomial
+     * @param roots buffer with room for at least p.degree() roots
+     * @return the number of distinct roots
+     * @throws IllegalArgumentException if p is the zero polynomial
+     */
+    public static int findRoots(Polynomial p, int[] roots) throws IllegalArgumentException {
+        GaloisField F = p.getField();
+        Polynomial f = Polynomial.trimmed(p.getCoefficients(), F);
+        if (f.degree() == 0) {
+            if (f.getCoefficient(0) == 0)
+                throw new IllegalArgumentException("Every element is a root of the zero polynomial");
+            return 0;
+        }
+        int q = F.getPrime();
+        if (q <= SCAN_LIMIT)
+            return consecutiveRoots(f, 0, q, roots);
+
+        Polynomial x = new Polynomial(new int[]{0, 1}, F);
+        Polynomial g = gcd(f, powerMod(x, q, f).subtract(x));
+        int found = 0;
+        if (g.getCoefficient(0) == 0) {
+            roots[found++] = 0;
+            g = g.div(x);
+        }
+        found = split(g, roots, found, new SplittableRandom(q));
+        Arrays.sort(roots, 0, found);
+        return found;
+    }
+
+    /**
+     * Writes the roots of a product of distinct linear factors into roots starting at found.
+     */
+    private static int split(Polynomial g, int[] roots, int found, SplittableRandom random) {
+        GaloisField F = g.getField();
+        if (g.degree() == 0)
+            return found;
+        if (g.degree() == 1) {
+            roots[found++] = F.div(F.subtract(0, g.getCoefficient(0)), g.getCoefficient(1));
+            return found;
+        }
+        int q = F.getPrime();
+        while (true) {
+            Polynomial shifted = new Polynomial(new int[]{random.nextInt(q), 1}, F);
+            Polynomial h = gcd(g, powerMod(shifted, (q - 1) / 2, g).subtract(Polynomial.ONE(F)));
+            if (h.degree() > 0 && h.degree() < g.degree()) {
+                found = split(h, roots, found, random);
+                return split(g.div(h), roots, found, random);
+            }
+        }
+    }
+
+    /**
+     * Returns base^exponent modulo the given polynomial, by repeated squaring.
+     */
+    static Polynomial powerMod(Polynomial base, long exponent, Polynomial modulus) {
+        Polynomial result = Polynomial.ONE(base.getField());
+        base = base.mod(modulus);
+        while (exponent > 0) {
+            if ((exponent & 1) == 1)
+                result = result.multiply(base).mod(modulus);
+            base = base.multiply(base).mod(modulus);
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the monic greatest common divisor of two polynomials.
+     */
+    static Polynomial gcd(Polynomial a, Polynomial b) {
+        GaloisField F = a.getField();
+        a = Polynomial.trimmed(a.getCoefficients(), F);
+        b = Polynomial.trimmed(b.getCoefficients(), F);
+        while (!(b.degree() == 0 && b.getCoefficient(0) == 0)) {
+            Polynomial r = a.mod(b);
+            a = b;
+            b = r;
+        }
+        int lead = a.getCoefficient(a.degree());
+        if (lead == 0)
+            return a;
+        return a.multiply(new Polynomial(new int[]{F.modInverse(lead)}, F));
+    }
+}
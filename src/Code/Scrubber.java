@@ -0,0 +1,266 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Scrubber {
+
+    /**
+     * Number of symbols of every shard checked at once when the shards have no block checksums.
+     */
+    public static final int DEFAULT_STRIPE = 1 << 16;
+
+    private final List<Path> shardFiles;
+    private final long bytesPerSecond;
+    private final int window;
+
+    private final AtomicLong bytesScanned = new AtomicLong();
+    private final AtomicLong stripesScanned = new AtomicLong();
+    private final AtomicLong stripesRepaired = new AtomicLong();
+    private final AtomicLong symbolsRepaired = new AtomicLong();
+    private final AtomicLong stripesUnrecoverable = new AtomicLong();
+    private volatile long totalStripes;
+    private volatile long currentStripes;
+
+    /**
+     * Verifies a complete shard set written by ShardedFile.encode in place and repairs the stripes which fail, so
+     * latent corruption is fixed while every stripe still has enough good shards to be rebuilt.
+     * Shards with block checksums are checked block by block, and the blocks which fail their checksums are rebuilt
+     * as erasures from the other shards. Shards without them are checked by recomputing the parity of DEFAULT_STRIPE
+     * columns at a time with RSCodec.decode(ByteBuffer[], ByteBuffer[]), which only decodes and rewrites the columns
+     * whose parity doesn't match. Either way only the repaired stripes are written back.
+     * Reads are throttled to bytesPerSecond so a scrub can run next to foreground I/O.
+     * @param shardFiles paths of the n shard files of the set, in any order
+     * @param bytesPerSecond largest average number of shard bytes read per second, 0 for no limit
+     * @throws IllegalArgumentException if bytesPerSecond is negative
+     */
+    public Scrubber(List<Path> shardFiles, long bytesPerSecond) throws IllegalArgumentException {
+        this(shardFiles, bytesPerSecond, DEFAULT_STRIPE);
+    }
+
+    /**
+     * Same as Scrubber(List, long) checking stripes of the given number of symbols when the shards have no block
+     * checksums.
+     */
+    public Scrubber(List<Path> shardFiles, long bytesPerSecond, int stripe) throws IllegalArgumentException {
+        if (bytesPerSecond < 0)
+            throw new IllegalArgumentException("Rate must not be negative, got " + bytesPerSecond);
+        if (stripe <= 0)
+            throw new IllegalArgumentException("Stripe size must be positive, got " + stripe);
+        this.shardFiles = List.copyOf(shardFiles);
+        this.bytesPerSecond = bytesPerSecond;
+        this.window = stripe;
+    }
+
+    /**
+     * Scrubs the whole shard set once.
+     * @return true if every stripe is now valid, false if some stripe had too many corrupt symbols to be repaired
+     * @throws IOException if the shard set is incomplete or a shard file can't be read or written
+     * @throws InterruptedException if the thread is interrupted while throttled, the stripes scrubbed so far stay
+     * repaired
+     */
+    public boolean scrub() throws IOException, InterruptedException {
+        List<FileChannel> opened = new ArrayList<>();
+        try {
+            ShardedFile.Header reference = null;
+            FileChannel[] channels = null;
+            BlockChecksums[] checksums = null;
+            for (Path path : shardFiles) {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                opened.add(channel);
+                ShardedFile.Header header = ShardedFile.Header.read(channel);
+                if (header == null)
+                    throw new IOException(path + " is not a shard file");
+                if (reference == null) {
+                    reference = header;
+                    channels = new FileChannel[header.n];
+                    checksums = new BlockChecksums[header.n];
+                } else if (!reference.sameSet(header)) {
+                    throw new IOException(path + " belongs to another shard set");
+                }
+                channels[header.index] = channel;
+                checksums[header.index] = BlockChecksums.read(BlockChecksums.pathOf(path));
+            }
+            if (reference == null)
+                throw new IOException("No shard to scrub");
+            RSCodec codec = new RSCodec(new GaloisField(reference.prime), reference.n, reference.k);
+            for (int i = 0; i < reference.n; i++) {
+                if (channels[i] == null)
+                    throw new IOException("Shard " + i + " is missing, the set must be rebuilt before scrubbing");
+                long payload = i < reference.k ? reference.shardLength : reference.shardLength * codec.symbolBytes();
+                if (channels[i].size() != ShardedFile.HEADER_BYTES + payload)
+                    throw new IOException("Shard " + i + " doesn't have the size announced by its header");
+            }
+            return scrub(codec, reference, channels, blockChecksums(checksums, reference));
+        } finally {
+            for (FileChannel channel : opened) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the checksums of the shards if all of them have consistent block checksums, null otherwise.
+     */
+    private static BlockChecksums[] blockChecksums(BlockChecksums[] checksums, ShardedFile.Header header) {
+        for (BlockChecksums blocks : checksums) {
+            if (blocks == null || blocks.blockSymbols() != checksums[0].blockSymbols()
+                    || blocks.blocks() != BlockChecksums.blocks(header.shardLength, blocks.blockSymbols()))
+                return null;
+        }
+        return checksums;
+    }
+
+    private boolean scrub(RSCodec codec, ShardedFile.Header header, FileChannel[] channels,
+                          BlockChecksums[] checksums) throws IOException, InterruptedException {
+        int n = codec.length();
+        int k = codec.dimension();
+        int symbolBytes = codec.symbolBytes();
+        int unit = checksums != null ? checksums[0].blockSymbols() : window;
+        int step = Math.max(1, ShardedFile.DEFAULT_WINDOW / unit) * unit;
+        totalStripes = BlockChecksums.blocks(header.shardLength, unit);
+        currentStripes = 0;
+        long bytesPerColumn = k + (long) (n - k) * symbolBytes;
+        long startNanos = System.nanoTime();
+        long scanned = 0;
+        boolean valid = true;
+
+        MappedByteBuffer[] mapped = new MappedByteBuffer[n];
+        ByteBuffer[] data = new ByteBuffer[k];
+        ByteBuffer[] parity = new ByteBuffer[n - k];
+        boolean[] present = new boolean[n];
+        for (long start = 0; start < header.shardLength; start += step) {
+            int length = (int) Math.min(step, header.shardLength - start);
+            for (int i = 0; i < n; i++) {
+                int width = i < k ? 1 : symbolBytes;
+                mapped[i] = channels[i].map(FileChannel.MapMode.READ_WRITE,
+                        ShardedFile.HEADER_BYTES + start * width, (long) length * width);
+            }
+            boolean dirty = false;
+            for (int offset = 0; offset < length; offset += unit) {
+                int len = Math.min(unit, length - offset);
+                for (int i = 0; i < n; i++) {
+                    int width = i < k ? 1 : symbolBytes;
+                    ByteBuffer shard = mapped[i].slice(offset * width, len * width);
+                    if (i < k)
+                        data[i] = shard;
+                    else
+                        parity[i - k] = shard;
+                }
+                int repaired = checksums != null
+                        ? repairBlock(codec, checksums, (int) ((start + offset) / unit), data, parity, present)
+                        : codec.decode(data, parity);
+                if (repaired < 0) {
+                    valid = false;
+                    stripesUnrecoverable.incrementAndGet();
+                } else if (repaired > 0) {
+                    dirty = true;
+                    stripesRepaired.incrementAndGet();
+                    symbolsRepaired.addAndGet(repaired);
+                }
+                stripesScanned.incrementAndGet();
+                currentStripes++;
+                bytesScanned.addAndGet(len * bytesPerColumn);
+                scanned += len * bytesPerColumn;
+                throttle(scanned, startNanos);
+            }
+            if (dirty) {
+                for (MappedByteBuffer shard : mapped) {
+                    shard.force();
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Rebuilds the shards of a block which fail their checksums from the others.
+     * @return the number of rebuilt symbols, or -1 if fewer than k shards of the block are valid
+     */
+    private static int repairBlock(RSCodec codec, BlockChecksums[] checksums, int block, ByteBuffer[] data,
+                                   ByteBuffer[] parity, boolean[] present) {
+        int n = codec.length();
+        int k = codec.dimension();
+        int valid = 0;
+        for (int i = 0; i < n; i++) {
+            ByteBuffer shard = i < k ? data[i] : parity[i - k];
+            BitSet corrupt = checksums[i].verify(shard, i < k ? 1 : codec.symbolBytes(), block);
+            present[i] = corrupt.isEmpty();
+            if (present[i])
+                valid++;
+        }
+        if (valid == n)
+            return 0;
+        if (valid < k)
+            return -1;
+        ByteBuffer[] shards = new ByteBuffer[n];
+        System.arraycopy(data, 0, shards, 0, k);
+        System.arraycopy(parity, 0, shards, k, n - k);
+        codec.reconstruct(shards, present);
+        return (n - valid) * data[0].remaining();
+    }
+
+    /**
+     * Sleeps until reading the given number of bytes since startNanos is within the rate limit.
+     */
+    private void throttle(long scanned, long startNanos) throws InterruptedException {
+        if (bytesPerSecond == 0)
+            return;
+        long due = startNanos + (long) (scanned * 1e9 / bytesPerSecond);
+        long wait = due - System.nanoTime();
+        if (wait > 0)
+            TimeUnit.NANOSECONDS.sleep(wait);
+    }
+
+    /**
+     * Returns the number of shard bytes read so far, over all scrubs.
+     */
+    public long getBytesScanned() {
+        return bytesScanned.get();
+    }
+
+    /**
+     * Returns the number of stripes checked so far, over all scrubs.
+     */
+    public long getStripesScanned() {
+        return stripesScanned.get();
+    }
+
+    /**
+     * Returns the number of stripes which had corrupt symbols and were repaired.
+     */
+    public long getStripesRepaired() {
+        return stripesRepaired.get();
+    }
+
+    /**
+     * Returns the number of symbols rewritten by repairs.
+     */
+    public long getSymbolsRepaired() {
+        return symbolsRepaired.get();
+    }
+
+    /**
+     * Returns the number of stripes which had too many corrupt symbols to be repaired.
+     */
+    public long getStripesUnrecoverable() {
+        return stripesUnrecoverable.get();
+    }
+
+    /**
+     * Returns the fraction of the current or last scrub completed, in [0, 1].
+     */
+    public double getProgress() {
+        long total = totalStripes;
+        return total == 0 ? 0 : (double) currentStripes / total;
+    }
+}
@@ -0,0 +1,326 @@
+package Code;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public final class ShardPipeline {
+
+    /**
+     * Number of items buffered between two stages unless chosen otherwise.
+     */
+    public static final int DEFAULT_BUFFER = 16;
+    /**
+     * Executor shared by the pipelines created without one. Stages block while the next stage is full, so they get
+     * threads of their own rather than the common fork join pool.
+     */
+    private static final ExecutorService EXECUTOR = ShardReader.newExecutor();
+
+    private ShardPipeline() {
+    }
+
+    /**
+     * The shards of one stripe of a stream: stripe i covers the bytes [i * k * shardLength, (i+1) * k * shardLength)
+     * of the stream, interleaved over the data shards so that data shard j holds its bytes j, j + k, j + 2k, ... and
+     * every codeword column holds k consecutive bytes. Parity shards hold codec.symbolBytes() bytes per column as
+     * written by RSCodec.encode(ByteBuffer[], ByteBuffer[]).
+     * The last stripe of a stream is padded with zeros, length is the number of stream bytes it holds.
+     */
+    public static final class Stripe {
+        public final long index;
+        public final int length;
+        public final ByteBuffer[] shards;
+
+        /**
+         * @param index position of the stripe in the stream
+         * @param length number of stream bytes in the stripe
+         * @param shards n shards, data shards first, null for a missing shard
+         */
+        public Stripe(long index, int length, ByteBuffer[] shards) {
+            this.index = index;
+            this.length = length;
+            this.shards = shards;
+        }
+    }
+
+    /**
+     * Same as encoder(codec, shardLength, executor, DEFAULT_BUFFER) on virtual threads if the runtime has them, or on
+     * a shared cached pool of daemon threads.
+     */
+    public static Flow.Processor<ByteBuffer, Stripe> encoder(RSCodec codec, int shardLength) {
+        return encoder(codec, shardLength, EXECUTOR, DEFAULT_BUFFER);
+    }
+
+    /**
+     * Returns a processor turning a stream of byte buffers of any size into encoded stripes. The stream goes through
+     * three stages, each running as its own task on the executor: chunking into stripes of k * shardLength bytes,
+     * interleaving every stripe over its k data shards and encoding the parity shards. Every stage holds at most
+     * maxBuffer items for the next one and only requests more input once the next stage accepted its output, so a
+     * slow subscriber throttles the publisher instead of letting the stripes pile up in memory, while reading,
+     * encoding and writing of successive stripes overlap.
+     * Published buffers are owned by the pipeline until handed to the subscriber. As with SubmissionPublisher, stripes
+     * produced before anyone subscribed to the processor are dropped, so subscribe before publishing to it.
+     * @param codec the code to encode with, over a field larger than GF255
+     * @param shardLength number of bytes in a data shard
+     * @param executor executor running the stages
+     * @param maxBuffer number of items buffered between stages
+     * @throws IllegalArgumentException if shardLength or maxBuffer isn't positive or the field is smaller than GF257
+     */
+    public static Flow.Processor<ByteBuffer, Stripe> encoder(RSCodec codec, int shardLength, Executor executor,
+                                                             int maxBuffer) throws IllegalArgumentException {
+        check(codec, shardLength, maxBuffer);
+        Chunker chunker = new Chunker(codec.dimension() * shardLength);
+        Stage<ByteBuffer, Chunk> chunking = new Stage<>(executor, maxBuffer, chunker::accept, chunker::finish);
+        Stage<Chunk, Stripe> interleaving = new Stage<>(executor, maxBuffer,
+                (chunk, emit) -> emit.accept(interleave(codec, shardLength, chunk)), emit -> { });
+        Stage<Stripe, Stripe> encoding = new Stage<>(executor, maxBuffer, (stripe, emit) -> {
+            ByteBuffer[] data = new ByteBuffer[codec.dimension()];
+            ByteBuffer[] parity = new ByteBuffer[codec.length() - codec.dimension()];
+            System.arraycopy(stripe.shards, 0, data, 0, data.length);
+            System.arraycopy(stripe.shards, data.length, parity, 0, parity.length);
+            codec.encode(data, parity);
+            emit.accept(stripe);
+        }, emit -> { });
+        chunking.subscribe(interleaving);
+        interleaving.subscribe(encoding);
+        return new Chain<>(chunking, encoding);
+    }
+
+    /**
+     * Same as decoder(codec, shardLength, executor, DEFAULT_BUFFER) on the executor of encoder(RSCodec, int).
+     */
+    public static Flow.Processor<Stripe, ByteBuffer> decoder(RSCodec codec, int shardLength) {
+        return decoder(codec, shardLength, EXECUTOR, DEFAULT_BUFFER);
+    }
+
+    /**
+     * Returns the mirror of encoder(RSCodec, int, Executor, int): a processor rebuilding the missing data shards of
+     * every stripe from any k of its shards in one stage, and deinterleaving the data shards back into the stripe's
+     * bytes in the next one. A shard is missing if it is null or doesn't have the expected length. The processor fails with
+     * an IllegalArgumentException if a stripe has fewer than k shards.
+     * @param codec the code the stripes were encoded with
+     * @param shardLength number of bytes in a data shard
+     * @param executor executor running the stages
+     * @param maxBuffer number of items buffered between stages
+     * @throws IllegalArgumentException if shardLength or maxBuffer isn't positive or the field is smaller than GF257
+     */
+    public static Flow.Processor<Stripe, ByteBuffer> decoder(RSCodec codec, int shardLength, Executor executor,
+                                                             int maxBuffer) throws IllegalArgumentException {
+        check(codec, shardLength, maxBuffer);
+        Stage<Stripe, Stripe> rebuilding = new Stage<>(executor, maxBuffer,
+                (stripe, emit) -> emit.accept(rebuild(codec, shardLength, stripe)), emit -> { });
+        Stage<Stripe, ByteBuffer> deinterleaving = new Stage<>(executor, maxBuffer,
+                (stripe, emit) -> emit.accept(deinterleave(codec, stripe)), emit -> { });
+        rebuilding.subscribe(deinterleaving);
+        return new Chain<>(rebuilding, deinterleaving);
+    }
+
+    private static void check(RSCodec codec, int shardLength, int maxBuffer) {
+        if (codec.getField().getPrime() <= 0xFF)
+            throw new IllegalArgumentException("Byte shards require a field larger than GF255");
+        if (shardLength <= 0)
+            throw new IllegalArgumentException("Shard length must be positive, got " + shardLength);
+        if (maxBuffer <= 0)
+            throw new IllegalArgumentException("Buffer size must be positive, got " + maxBuffer);
+    }
+
+    /**
+     * Bytes of one stripe, padded with zeros.
+     */
+    private static final class Chunk {
+        final long index;
+        final int length;
+        final byte[] bytes;
+
+        Chunk(long index, int length, byte[] bytes) {
+            this.index = index;
+            this.length = length;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Cuts a stream of buffers into chunks of a fixed size.
+     */
+    private static final class Chunker {
+        private final int size;
+        private byte[] bytes;
+        private int filled = 0;
+        private long index = 0;
+
+        Chunker(int size) {
+            this.size = size;
+            this.bytes = new byte[size];
+        }
+
+        void accept(ByteBuffer buffer, Consumer<Chunk> emit) {
+            ByteBuffer src = buffer.duplicate();
+            while (src.hasRemaining()) {
+                int len = Math.min(src.remaining(), size - filled);
+                src.get(bytes, filled, len);
+                filled += len;
+                if (filled == size)
+                    emitChunk(emit);
+            }
+        }
+
+        void finish(Consumer<Chunk> emit) {
+            if (filled > 0)
+                emitChunk(emit);
+        }
+
+        private void emitChunk(Consumer<Chunk> emit) {
+            emit.accept(new Chunk(index++, filled, bytes));
+            bytes = new byte[size];
+            filled = 0;
+        }
+    }
+
+    /**
+     * Deals the bytes of a chunk over k data shards, byte j going to shard j % k at position j / k.
+     */
+    private static Stripe interleave(RSCodec codec, int shardLength, Chunk chunk) {
+        int k = codec.dimension();
+        ByteBuffer[] shards = new ByteBuffer[codec.length()];
+        byte[][] data = new byte[k][shardLength];
+        for (int j = 0; j < chunk.bytes.length; j++) {
+            data[j % k][j / k] = chunk.bytes[j];
+        }
+        for (int i = 0; i < k; i++) {
+            shards[i] = ByteBuffer.wrap(data[i]);
+        }
+        for (int i = k; i < shards.length; i++) {
+            shards[i] = ByteBuffer.allocate(shardLength * codec.symbolBytes());
+        }
+        return new Stripe(chunk.index, chunk.length, shards);
+    }
+
+    private static Stripe rebuild(RSCodec codec, int shardLength, Stripe stripe) {
+        int n = codec.length();
+        int k = codec.dimension();
+        if (stripe.shards.length != n)
+            throw new IllegalArgumentException("Stripe " + stripe.index + " has " + stripe.shards.length
+                    + " shards, expected " + n);
+        ByteBuffer[] shards = new ByteBuffer[n];
+        boolean[] present = new boolean[n];
+        boolean complete = true;
+        for (int i = 0; i < n; i++) {
+            ByteBuffer shard = stripe.shards[i];
+            long expected = i < k ? shardLength : (long) shardLength * codec.symbolBytes();
+            present[i] = shard != null && shard.remaining() == expected;
+            if (present[i])
+                shards[i] = shard;
+            else if (i < k) {
+                shards[i] = ByteBuffer.allocate(shardLength);
+                complete = false;
+            }
+        }
+        if (!complete)
+            codec.reconstruct(shards, present);
+        return new Stripe(stripe.index, stripe.length, shards);
+    }
+
+    /**
+     * Mirror of interleave, collecting the first length bytes of the stripe from its data shards.
+     */
+    private static ByteBuffer deinterleave(RSCodec codec, Stripe stripe) {
+        int k = codec.dimension();
+        byte[] bytes = new byte[stripe.length];
+        for (int j = 0; j < bytes.length; j++) {
+            ByteBuffer shard = stripe.shards[j % k];
+            bytes[j] = shard.get(shard.position() + j / k);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * A processor stage running a transformation on every item it receives and publishing the results, requesting
+     * the next item only once the results of the current one have been accepted downstream.
+     */
+    private static final class Stage<T, R> extends SubmissionPublisher<R> implements Flow.Processor<T, R> {
+        private final BiConsumer<T, Consumer<R>> transform;
+        private final Consumer<Consumer<R>> finish;
+        private Flow.Subscription subscription;
+
+        Stage(Executor executor, int maxBuffer, BiConsumer<T, Consumer<R>> transform, Consumer<Consumer<R>> finish) {
+            super(executor, maxBuffer);
+            this.transform = transform;
+            this.finish = finish;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            try {
+                transform.accept(item, this::submit);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                closeExceptionally(e);
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                finish.accept(this::submit);
+                close();
+            } catch (RuntimeException e) {
+                closeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * A chain of stages seen as a single processor, receiving through its first stage and publishing from its last.
+     */
+    private static final class Chain<T, R> implements Flow.Processor<T, R> {
+        private final Flow.Subscriber<T> head;
+        private final Flow.Publisher<R> tail;
+
+        Chain(Flow.Subscriber<T> head, Flow.Publisher<R> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            head.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(T item) {
+            head.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            head.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            head.onComplete();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super R> subscriber) {
+            tail.subscribe(subscriber);
+        }
+    }
+}
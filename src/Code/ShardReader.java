@@ -0,0 +1,161 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ShardReader implements AutoCloseable {
+
+    private final RSCodec codec;
+    private final ShardTransport transport;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Reads the data shards of a codeword from remote nodes with hedged reads: all n shards are requested at once,
+     * and as soon as any k valid shards arrived the outstanding fetches are cancelled and the missing data shards are
+     * rebuilt from the ones at hand, so the latency of a read is that of the k'th fastest node rather than the
+     * slowest one. Shards the transport has block checksums for are verified as they arrive, and a shard with a
+     * corrupted block counts as missing.
+     * Fetches run on virtual threads when the runtime provides them, and on a cached pool of daemon threads otherwise.
+     * @param codec the code the shards were encoded with, over a field larger than GF255
+     * @param transport transport used to fetch the shards
+     */
+    public ShardReader(RSCodec codec, ShardTransport transport) {
+        this(codec, transport, newExecutor(), true);
+    }
+
+    /**
+     * Same as ShardReader(RSCodec, ShardTransport) running the fetches on the given executor, which is not shut down
+     * by close().
+     */
+    public ShardReader(RSCodec codec, ShardTransport transport, ExecutorService executor) {
+        this(codec, transport, executor, false);
+    }
+
+    private ShardReader(RSCodec codec, ShardTransport transport, ExecutorService executor, boolean ownsExecutor) {
+        this.codec = codec;
+        this.transport = transport;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Returns a thread per task executor on virtual threads if the runtime has them, looked up reflectively so the
+     * library still runs on Java 17, or a cached pool of daemon threads.
+     */
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "shard-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Fetches the shards of a codeword and returns its k data shards, rebuilding the ones which didn't arrive among
+     * the first k valid shards.
+     * @param length number of symbols in every shard
+     * @return k buffers of length bytes, data shards first fetched as they are and rebuilt shards newly allocated
+     * @throws IOException if fewer than k valid shards could be fetched
+     * @throws InterruptedException if the calling thread is interrupted while waiting for shards
+     */
+    public ByteBuffer[] read(int length) throws IOException, InterruptedException {
+        int n = codec.length();
+        int k = codec.dimension();
+        CompletionService<ByteBuffer> completion = new ExecutorCompletionService<>(executor);
+        Future<?>[] fetches = new Future<?>[n];
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            fetches[i] = completion.submit(() -> {
+                ByteBuffer shard = transport.fetch(index);
+                if (!isValid(index, shard, length))
+                    return null;
+                BlockChecksums checksums = transport.fetchChecksums(index);
+                int width = index < k ? 1 : codec.symbolBytes();
+                return checksums == null || checksums.verify(shard, width).isEmpty() ? shard : null;
+            });
+        }
+
+        ByteBuffer[] shards = new ByteBuffer[n];
+        boolean[] present = new boolean[n];
+        int valid = 0;
+        IOException failure = null;
+        try {
+            for (int done = 0; done < n && valid < k; done++) {
+                Future<ByteBuffer> fetch = completion.take();
+                int index = indexOf(fetches, fetch);
+                try {
+                    ByteBuffer shard = fetch.get();
+                    if (shard != null) {
+                        shards[index] = shard;
+                        present[index] = true;
+                        valid++;
+                    }
+                } catch (ExecutionException e) {
+                    if (failure == null)
+                        failure = new IOException("Fetching shard " + index + " failed", e.getCause());
+                    else
+                        failure.addSuppressed(e.getCause());
+                } catch (CancellationException ignored) {
+                }
+            }
+        } finally {
+            for (Future<?> fetch : fetches) {
+                fetch.cancel(true);
+            }
+        }
+        if (valid < k) {
+            IOException e = new IOException("Only " + valid + " of " + n + " shards are available, " + k + " needed");
+            if (failure != null)
+                e.addSuppressed(failure);
+            throw e;
+        }
+
+        for (int i = 0; i < k; i++) {
+            if (!present[i])
+                shards[i] = ByteBuffer.allocate(length);
+        }
+        codec.reconstruct(shards, present);
+        ByteBuffer[] data = new ByteBuffer[k];
+        System.arraycopy(shards, 0, data, 0, k);
+        return data;
+    }
+
+    /**
+     * Returns true if a fetched shard holds the expected number of bytes.
+     */
+    private boolean isValid(int index, ByteBuffer shard, int length) {
+        if (shard == null)
+            return false;
+        long expected = index < codec.dimension() ? length : (long) length * codec.symbolBytes();
+        return shard.remaining() == expected;
+    }
+
+    private static int indexOf(Future<?>[] fetches, Future<?> fetch) {
+        for (int i = 0; i < fetches.length; i++) {
+            if (fetches[i] == fetch)
+                return i;
+        }
+        throw new IllegalStateException("Unknown fetch");
+    }
+
+    /**
+     * Shuts down the executor if this reader created it.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor)
+            executor.shutdownNow();
+    }
+}
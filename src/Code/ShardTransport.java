@@ -0,0 +1,31 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public interface ShardTransport {
+
+    /**
+     * Fetches the payload of a shard from the node holding it, as written by ShardedFile: one byte per symbol for a
+     * data shard and symbolBytes() bytes per symbol for a parity shard.
+     * Fetches are issued concurrently and cancelled by interrupting the fetching thread, so implementations should
+     * block interruptibly.
+     * @param index index of the shard in [0, n)
+     * @return the payload between position and limit, or null if the node doesn't have the shard
+     * @throws IOException if the node can't be reached
+     * @throws InterruptedException if the fetch was cancelled
+     */
+    ByteBuffer fetch(int index) throws IOException, InterruptedException;
+
+    /**
+     * Fetches the block checksums stored alongside a shard, if the node keeps any. A shard whose blocks don't match
+     * its checksums is treated as missing rather than handed to the decoder as errors.
+     * @param index index of the shard in [0, n)
+     * @return the checksums of the shard, or null if there are none
+     * @throws IOException if the node can't be reached
+     * @throws InterruptedException if the fetch was cancelled
+     */
+    default BlockChecksums fetchChecksums(int index) throws IOException, InterruptedException {
+        return null;
+    }
+}
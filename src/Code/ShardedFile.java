@@ -0,0 +1,441 @@
+package Code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class ShardedFile {
+
+    public static final int MAGIC = 0x52534844; // "RSHD"
+    public static final int VERSION = 1;
+    /**
+     * magic, version, prime, n, k, shard index (ints) followed by file length, shard length and checksum (longs).
+     * The checksum covers the header fields from prime to shard length followed by the payload.
+     */
+    public static final int HEADER_BYTES = 6 * Integer.BYTES + 3 * Long.BYTES;
+    /**
+     * Number of symbols of every shard mapped at once.
+     */
+    public static final int DEFAULT_WINDOW = 1 << 22;
+
+    /**
+     * Header of a shard file.
+     */
+    public static class Header {
+        public final int prime, n, k, index;
+        public final long fileLength, shardLength, checksum;
+
+        public Header(int prime, int n, int k, int index, long fileLength, long shardLength, long checksum) {
+            this.prime = prime;
+            this.n = n;
+            this.k = k;
+            this.index = index;
+            this.fileLength = fileLength;
+            this.shardLength = shardLength;
+            this.checksum = checksum;
+        }
+
+        /**
+         * Returns the number of payload bytes following the header.
+         * @param symbolBytes number of bytes in a parity symbol
+         * @return shardLength for data shards, shardLength * symbolBytes for parity shards
+         */
+        public long payloadBytes(int symbolBytes) {
+            return index < k ? shardLength : shardLength * symbolBytes;
+        }
+
+        /**
+         * Returns a CRC32 updated with the header fields the checksum covers, to be updated with the payload.
+         */
+        CRC32 newChecksum() {
+            return ShardedFile.newChecksum(prime, n, k, index, fileLength, shardLength);
+        }
+
+        /**
+         * Returns true if the given header belongs to the same shard set as this header.
+         */
+        public boolean sameSet(Header other) {
+            return prime == other.prime && n == other.n && k == other.k && fileLength == other.fileLength
+                    && shardLength == other.shardLength;
+        }
+
+        void write(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(prime).putInt(n).putInt(k).putInt(index)
+                    .putLong(fileLength).putLong(shardLength).putLong(checksum).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+        }
+
+        /**
+         * Reads the header of a shard file.
+         * @param channel channel of the shard file
+         * @return the header, or null if the file doesn't start with a valid shard header
+         */
+        public static Header read(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0)
+                    return null;
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+            Header header = new Header(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                    buffer.getLong(), buffer.getLong(), buffer.getLong());
+            if (header.k <= 0 || header.n <= header.k || header.index < 0 || header.index >= header.n)
+                return null;
+            return header;
+        }
+    }
+
+    /**
+     * Given a file, splits it into k data shards and n-k parity shards, each written to its own file in the output
+     * directory as $name$.shard$i$, data shard i holding bytes [i * L, (i + 1) * L) of the file for L = ceil(size / k).
+     * The input is memory mapped and processed DEFAULT_WINDOW symbols of every shard at a time.
+     * @param input file to encode
+     * @param outputDir directory to write the shard files to
+     * @param codec code to encode the file with, its field must be larger than GF255
+     * @return paths of the n shard files ordered by shard index
+     * @throws IOException if reading the input or writing a shard fails
+     */
+    public static List<Path> encode(Path input, Path outputDir, RSCodec codec) throws IOException {
+        return encode(input, outputDir, codec, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Same as encode(Path, Path, RSCodec) with the number of symbols of every shard mapped at once.
+     */
+    public static List<Path> encode(Path input, Path outputDir, RSCodec codec, int window) throws IOException {
+        return encode(input, outputDir, codec, window, 0);
+    }
+
+    /**
+     * Same as encode(Path, Path, RSCodec, int), additionally writing the CRC32C checksum of every block of
+     * blockSymbols symbols of a shard to the file BlockChecksums.pathOf(shard) next to it, which lets decode treat a
+     * corrupted block as an erasure of its columns instead of discarding the whole shard.
+     * @param blockSymbols number of symbols covered by a checksum, 0 to write no block checksums
+     */
+    public static List<Path> encode(Path input, Path outputDir, RSCodec codec, int window, int blockSymbols)
+            throws IOException {
+        if (blockSymbols > 0)
+            window = Math.max(1, window / blockSymbols) * blockSymbols; // windows hold whole blocks
+        int n = codec.length();
+        int k = codec.dimension();
+        int symbolBytes = codec.symbolBytes();
+        List<Path> paths = new ArrayList<>();
+        FileChannel[] shards = new FileChannel[n];
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long fileLength = in.size();
+            long shardLength = Math.max(1, (fileLength + k - 1) / k);
+            for (int i = 0; i < n; i++) {
+                Path path = outputDir.resolve(input.getFileName() + ".shard" + i);
+                paths.add(path);
+                shards[i] = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            CRC32[] checksums = new CRC32[n];
+            for (int i = 0; i < n; i++) {
+                checksums[i] = newChecksum(codec.getField().getPrime(), n, k, i, fileLength, shardLength);
+            }
+            int[][] blockChecksums = new int[n][blockSymbols > 0 ? BlockChecksums.blocks(shardLength, blockSymbols) : 0];
+
+            ByteBuffer[] data = new ByteBuffer[k];
+            ByteBuffer[] parity = new ByteBuffer[n - k];
+            for (long start = 0; start < shardLength; start += window) {
+                int length = (int) Math.min(window, shardLength - start);
+                for (int i = 0; i < k; i++) {
+                    data[i] = mapData(in, i * shardLength + start, length, fileLength);
+                }
+                for (int r = 0; r < n - k; r++) {
+                    parity[r] = shards[k + r].map(FileChannel.MapMode.READ_WRITE,
+                            HEADER_BYTES + start * symbolBytes, (long) length * symbolBytes);
+                }
+                codec.encode(data, parity);
+
+                for (int i = 0; i < k; i++) {
+                    checksums[i].update(data[i].duplicate());
+                    writeFully(shards[i], data[i].duplicate(), HEADER_BYTES + start);
+                }
+                for (int r = 0; r < n - k; r++) {
+                    checksums[k + r].update(parity[r].duplicate());
+                }
+                if (blockSymbols > 0) {
+                    int firstBlock = (int) (start / blockSymbols);
+                    for (int i = 0; i < n; i++) {
+                        ByteBuffer shard = i < k ? data[i] : parity[i - k];
+                        BlockChecksums blocks = BlockChecksums.compute(shard, i < k ? 1 : symbolBytes, blockSymbols);
+                        for (int b = 0; b < blocks.blocks(); b++) {
+                            blockChecksums[i][firstBlock + b] = blocks.get(b);
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                new Header(codec.getField().getPrime(), n, k, i, fileLength, shardLength, checksums[i].getValue())
+                        .write(shards[i]);
+                if (blockSymbols > 0)
+                    new BlockChecksums(blockSymbols, blockChecksums[i]).write(BlockChecksums.pathOf(paths.get(i)));
+            }
+        } finally {
+            for (FileChannel shard : shards) {
+                if (shard != null)
+                    shard.close();
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Given shard files of a single file, rebuilds the original file from any k of them.
+     * Shards whose header or checksum is invalid are ignored, the checksum covering the header so that a shard with a
+     * corrupted index or length is ignored as well. Shards with block checksums next to them are verified block by
+     * block instead, and only their corrupted blocks are ignored, so every block of the file needs k valid blocks
+     * among all the shards. The header of a shard with corrupted blocks can't be verified, such shards are only used
+     * if they agree with the header of a fully valid shard, or with most other shards if none is fully valid.
+     * @param shardFiles paths of the available shard files, in any order
+     * @param output file to write the original file to
+     * @throws IOException if some block has fewer than k valid shards, or reading a shard or writing the output fails
+     */
+    public static void decode(List<Path> shardFiles, Path output) throws IOException {
+        decode(shardFiles, output, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Same as decode(List, Path) with the number of symbols of every shard mapped at once.
+     */
+    public static void decode(List<Path> shardFiles, Path output, int window) throws IOException {
+        Header reference = null;
+        List<Header> headers = new ArrayList<>();
+        List<FileChannel> verified = new ArrayList<>();
+        List<BitSet> corruptBlocks = new ArrayList<>();
+        int blockSymbols = 0;
+        List<FileChannel> opened = new ArrayList<>();
+        try {
+            for (Path path : shardFiles) {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                opened.add(channel);
+                Header header = Header.read(channel);
+                if (header == null)
+                    continue;
+                BitSet blocks = null;
+                BlockChecksums checksums = BlockChecksums.read(BlockChecksums.pathOf(path));
+                if (checksums != null && (blockSymbols == 0 || checksums.blockSymbols() == blockSymbols)
+                        && checksums.blocks() == BlockChecksums.blocks(header.shardLength, checksums.blockSymbols())) {
+                    blocks = verifyBlocks(channel, header, checksums, window);
+                    if (blocks == null)
+                        continue;
+                    blockSymbols = checksums.blockSymbols();
+                } else if (!verify(channel, header, window)) {
+                    continue;
+                }
+                if (reference == null && (blocks == null || blocks.isEmpty()))
+                    reference = header;
+                headers.add(header);
+                verified.add(channel);
+                corruptBlocks.add(blocks);
+            }
+            if (reference == null)
+                reference = agreed(headers);
+            if (reference == null)
+                throw new IOException("No valid shard found");
+
+            // fully valid shards first, so that a shard whose header can't be verified never displaces one
+            FileChannel[] channels = new FileChannel[reference.n];
+            BitSet[] corrupt = new BitSet[reference.n];
+            for (boolean partial : new boolean[]{false, true}) {
+                for (int s = 0; s < headers.size(); s++) {
+                    Header header = headers.get(s);
+                    BitSet blocks = corruptBlocks.get(s);
+                    if (partial != (blocks != null && !blocks.isEmpty()) || !reference.sameSet(header)
+                            || channels[header.index] != null)
+                        continue;
+                    channels[header.index] = verified.get(s);
+                    corrupt[header.index] = blocks;
+                }
+            }
+            RSCodec codec = new RSCodec(new GaloisField(reference.prime), reference.n, reference.k);
+            rebuild(codec, reference, channels, corrupt, blockSymbols, output, window);
+        } finally {
+            for (FileChannel channel : opened) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the header whose shard set most of the given headers belong to, or null if there are none.
+     */
+    private static Header agreed(List<Header> headers) {
+        Header best = null;
+        int bestVotes = 0;
+        for (Header header : headers) {
+            int votes = 0;
+            for (Header other : headers) {
+                if (header.sameSet(other))
+                    votes++;
+            }
+            if (votes > bestVotes) {
+                best = header;
+                bestVotes = votes;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Rebuilds the file from the given shards, unit symbols of every shard at a time, unit being a checksum block if
+     * any shard has block checksums. Every unit is reconstructed from the first k shards whose block is valid.
+     */
+    private static void rebuild(RSCodec codec, Header header, FileChannel[] channels, BitSet[] corrupt,
+                                int blockSymbols, Path output, int window) throws IOException {
+        int n = codec.length();
+        int k = codec.dimension();
+        int symbolBytes = codec.symbolBytes();
+        int unit = blockSymbols > 0 ? blockSymbols : window;
+        int step = Math.max(1, window / unit) * unit;
+        int available = 0;
+        for (FileChannel channel : channels) {
+            if (channel != null)
+                available++;
+        }
+        if (available < k)
+            throw new IOException("At least " + k + " valid shards are needed, found " + available);
+
+        ByteBuffer[] mapped = new ByteBuffer[n];
+        ByteBuffer[] shards = new ByteBuffer[n];
+        ByteBuffer[] scratch = new ByteBuffer[k];
+        boolean[] present = new boolean[n];
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long start = 0; start < header.shardLength; start += step) {
+                int length = (int) Math.min(step, header.shardLength - start);
+                for (int i = 0; i < n; i++) {
+                    int width = i < k ? 1 : symbolBytes;
+                    mapped[i] = channels[i] == null ? null : channels[i].map(FileChannel.MapMode.READ_ONLY,
+                            HEADER_BYTES + start * width, (long) length * width);
+                }
+                for (int offset = 0; offset < length; offset += unit) {
+                    int len = Math.min(unit, length - offset);
+                    int block = (int) ((start + offset) / unit);
+                    int count = 0;
+                    for (int i = 0; i < n; i++) {
+                        present[i] = mapped[i] != null && count < k && (corrupt[i] == null || !corrupt[i].get(block));
+                        if (present[i])
+                            count++;
+                    }
+                    if (count < k)
+                        throw new IOException("At least " + k + " valid shards are needed for symbols "
+                                + (start + offset) + " to " + (start + offset + len) + ", found " + count);
+                    for (int i = 0; i < n; i++) {
+                        int width = i < k ? 1 : symbolBytes;
+                        if (present[i]) {
+                            shards[i] = mapped[i].slice(offset * width, len * width);
+                        } else if (i < k) {
+                            if (scratch[i] == null)
+                                scratch[i] = ByteBuffer.allocateDirect((int) Math.min(unit, header.shardLength));
+                            shards[i] = scratch[i].clear().limit(len);
+                        } else {
+                            shards[i] = null;
+                        }
+                    }
+                    codec.reconstruct(shards, present);
+
+                    for (int i = 0; i < k; i++) {
+                        long position = i * header.shardLength + start + offset;
+                        long remaining = header.fileLength - position;
+                        if (remaining <= 0)
+                            break;
+                        ByteBuffer shard = shards[i].duplicate();
+                        shard.limit(shard.position() + (int) Math.min(len, remaining));
+                        writeFully(out, shard, position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the blocks of the shard which don't match their checksums, or null if the shard doesn't have the size
+     * its header announces, or if every block is valid but the header doesn't match its checksum.
+     */
+    private static BitSet verifyBlocks(FileChannel channel, Header header, BlockChecksums checksums, int window)
+            throws IOException {
+        int symbolBytes = RSCodec.symbolBytes(new GaloisField(header.prime));
+        int width = header.index < header.k ? 1 : symbolBytes;
+        if (channel.size() != HEADER_BYTES + header.payloadBytes(symbolBytes))
+            return null;
+        int blockSymbols = checksums.blockSymbols();
+        long step = (long) Math.max(1, window / blockSymbols) * blockSymbols;
+        BitSet corrupt = new BitSet();
+        CRC32 checksum = header.newChecksum();
+        for (long start = 0; start < header.shardLength; start += step) {
+            long length = Math.min(step, header.shardLength - start);
+            ByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + start * width,
+                    length * width);
+            corrupt.or(checksums.verify(payload, width, (int) (start / blockSymbols)));
+            checksum.update(payload);
+        }
+        if (corrupt.isEmpty() && checksum.getValue() != header.checksum)
+            return null;
+        return corrupt;
+    }
+
+    /**
+     * Returns true if the header and payload of the shard match the checksum in its header.
+     */
+    private static boolean verify(FileChannel channel, Header header, int window) throws IOException {
+        int symbolBytes = RSCodec.symbolBytes(new GaloisField(header.prime));
+        long payload = header.payloadBytes(symbolBytes);
+        if (channel.size() != HEADER_BYTES + payload)
+            return false;
+        CRC32 checksum = header.newChecksum();
+        long step = (long) window * symbolBytes;
+        for (long start = 0; start < payload; start += step) {
+            checksum.update(channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + start,
+                    Math.min(step, payload - start)));
+        }
+        return checksum.getValue() == header.checksum;
+    }
+
+    /**
+     * Returns a CRC32 updated with the given header fields.
+     */
+    private static CRC32 newChecksum(int prime, int n, int k, int index, long fileLength, long shardLength) {
+        ByteBuffer fields = ByteBuffer.allocate(4 * Integer.BYTES + 2 * Long.BYTES);
+        fields.putInt(prime).putInt(n).putInt(k).putInt(index).putLong(fileLength).putLong(shardLength).flip();
+        CRC32 checksum = new CRC32();
+        checksum.update(fields);
+        return checksum;
+    }
+
+    /**
+     * Maps length bytes of the file starting at position, zero padding past the end of the file.
+     */
+    private static ByteBuffer mapData(FileChannel in, long position, int length, long fileLength)
+            throws IOException {
+        long available = Math.max(0, Math.min(length, fileLength - position));
+        if (available == length)
+            return in.map(FileChannel.MapMode.READ_ONLY, position, length);
+        ByteBuffer padded = ByteBuffer.allocate(length);
+        if (available > 0) {
+            MappedByteBuffer tail = in.map(FileChannel.MapMode.READ_ONLY, position, available);
+            padded.put(tail).clear();
+        }
+        return padded;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
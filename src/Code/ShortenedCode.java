@@ -0,0 +1,173 @@
+package Code;
+
+import java.util.Arrays;
+
+public class ShortenedCode {
+
+    private final RSCodec parent;
+    private final int n;
+    private final int k;
+    private final int shortening;
+    /**
+     * positions[i] is the index in the parent codeword of symbol i of this code.
+     */
+    private final int[] positions;
+
+    /**
+     * Shortened and punctured code derived from a parent codec, so one precomputed codec serves every message length
+     * up to its own. A message of k symbols is encoded by the parent as a message whose first parent.k - k symbols
+     * are zero, and neither those zeros nor the punctured parity positions are transmitted.
+     * When decoding, the shortened symbols are known zeros and the punctured symbols are erasures, so the code
+     * corrects (n - k)/2 errors for its own length n.
+     * @param parent the parent codec
+     * @param k length of a message, at most parent.dimension()
+     * @param punctured distinct parity positions of the parent, in [parent.dimension(), parent.length()), which are
+     *                  not transmitted
+     * @throws IllegalArgumentException if k isn't in [1, parent.dimension()], a punctured position isn't a parity
+     * position, or all parity positions are punctured
+     */
+    public ShortenedCode(RSCodec parent, int k, int... punctured) throws IllegalArgumentException {
+        int parentK = parent.dimension();
+        int parentN = parent.length();
+        if (k < 1 || k > parentK)
+            throw new IllegalArgumentException("Expected 0 < k <= " + parentK + ", got k = " + k);
+        boolean[] dropped = new boolean[parentN];
+        for (int position : punctured) {
+            if (position < parentK || position >= parentN || dropped[position])
+                throw new IllegalArgumentException("Punctured positions must be distinct parity positions in ["
+                        + parentK + ", " + parentN + "), got " + position);
+            dropped[position] = true;
+        }
+        if (punctured.length == parentN - parentK)
+            throw new IllegalArgumentException("At least one parity position must remain");
+        this.parent = parent;
+        this.k = k;
+        this.shortening = parentK - k;
+        this.n = parentN - shortening - punctured.length;
+        this.positions = new int[n];
+        int count = 0;
+        for (int i = shortening; i < parentN; i++) {
+            if (!dropped[i])
+                positions[count++] = i;
+        }
+    }
+
+    /**
+     * Shortened code without puncturing, of length parent.length() - (parent.dimension() - k).
+     */
+    public ShortenedCode(RSCodec parent, int k) throws IllegalArgumentException {
+        this(parent, k, new int[0]);
+    }
+
+    /**
+     * Given a parent codec and the desired message and codeword lengths, returns the shortened code which punctures
+     * the last parity positions of the parent.
+     * @param parent the parent codec
+     * @param n length of a codeword, k < n <= parent.length() - (parent.dimension() - k)
+     * @param k length of a message, at most parent.dimension()
+     * @throws IllegalArgumentException if the lengths don't fit in the parent code
+     */
+    public static ShortenedCode of(RSCodec parent, int n, int k) throws IllegalArgumentException {
+        int maxLength = parent.length() - (parent.dimension() - k);
+        if (n <= k || n > maxLength)
+            throw new IllegalArgumentException("Expected " + k + " < n <= " + maxLength + ", got n = " + n);
+        int[] punctured = new int[maxLength - n];
+        for (int i = 0; i < punctured.length; i++) {
+            punctured[i] = n + (parent.dimension() - k) + i;
+        }
+        return new ShortenedCode(parent, k, punctured);
+    }
+
+    public RSCodec getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Returns the length of a codeword.
+     * @return n
+     */
+    public int length() {
+        return this.n;
+    }
+
+    /**
+     * Returns the length of a message.
+     * @return k
+     */
+    public int dimension() {
+        return this.k;
+    }
+
+    /**
+     * Returns the maximal number of symbol errors the code can correct within a single codeword.
+     * @return (n-k)/2
+     */
+    public int maxErrors() {
+        return (n - k) / 2;
+    }
+
+    /**
+     * Returns the index in the parent codeword of every symbol of this code.
+     */
+    public int[] parentPositions() {
+        return positions.clone();
+    }
+
+    /**
+     * Given a message of k symbols, writes its codeword into the given array, the first k symbols being the message
+     * itself followed by n-k parity symbols.
+     * @param data message symbols
+     * @param codeword array of length >= n to write the codeword to
+     * @pre foreach i, 0 <= data[i] < p
+     */
+    public void encode(int[] data, int[] codeword) {
+        int[] parentCodeword = new int[parent.length()];
+        int[] parentData = new int[parent.dimension()];
+        System.arraycopy(data, 0, parentData, shortening, k);
+        parent.encode(parentData, parentCodeword);
+        for (int i = 0; i < n; i++) {
+            codeword[i] = parentCodeword[positions[i]];
+        }
+    }
+
+    /**
+     * Given n received symbols, decodes the message and writes it into data.
+     * @param received array of at least n symbols, each in [0, p)
+     * @param data array of length >= k to write the decoded message to
+     * @return the number of corrected symbols, or -1 if the received word is further than (n-k)/2 from any codeword
+     */
+    public int decode(int[] received, int[] data) {
+        boolean[] present = new boolean[n];
+        Arrays.fill(present, true);
+        return decode(received, present, data);
+    }
+
+    /**
+     * Given n received symbols of which some are erased, decodes the message and writes it into data, correcting t
+     * errors and f erasures as long as 2t + f <= n - k.
+     * @param received array of at least n symbols, erased symbols may hold any value
+     * @param present present[i] is false if symbol i is erased
+     * @param data array of length >= k to write the decoded message to
+     * @return the number of corrected present symbols, or -1 if the message can't be decoded
+     */
+    public int decode(int[] received, boolean[] present, int[] data) {
+        int[] parentReceived = new int[parent.length()];
+        boolean[] parentPresent = new boolean[parent.length()];
+        // the shortened symbols are known zeros
+        Arrays.fill(parentPresent, 0, shortening, true);
+        for (int i = 0; i < n; i++) {
+            parentReceived[positions[i]] = received[i];
+            parentPresent[positions[i]] = present[i];
+        }
+        int[] parentData = new int[parent.dimension()];
+        int corrected = parent.decode(parentReceived, parentPresent, parentData);
+        if (corrected < 0)
+            return -1;
+        for (int i = 0; i < shortening; i++) {
+            if (parentData[i] != 0)
+                return -1; // the errors landed on a codeword outside the shortened code
+        }
+        System.arraycopy(parentData, shortening, data, 0, k);
+        return corrected;
+    }
+}
@@ -0,0 +1,231 @@
+package Code;
+
+import java.util.Arrays;
+
+public class SparsePolynomial {
+
+    /**
+     * A polynomial is considered sparse when at most 1 / SPARSE_DENSITY of its coefficients are non zero.
+     */
+    public static final int SPARSE_DENSITY = 4;
+
+    private final int[] exponents;
+    private final int[] coefficients;
+    private final GaloisField F;
+
+    /**
+     * Wraps increasing exponents and their non zero coefficients, both arrays are owned by the new polynomial.
+     */
+    private SparsePolynomial(int[] exponents, int[] coefficients, GaloisField field) {
+        this.exponents = exponents;
+        this.coefficients = coefficients;
+        this.F = field;
+    }
+
+    /**
+     * Returns the polynomial c * x^degree.
+     * @param coefficient the coefficient c
+     * @param degree the exponent of x, non negative
+     * @param field the galois field Fq
+     * @return a polynomial with a single term, or the zero polynomial if c = 0 mod q
+     */
+    public static SparsePolynomial monomial(int coefficient, int degree, GaloisField field) {
+        coefficient = field.mod(coefficient);
+        if (coefficient == 0)
+            return new SparsePolynomial(new int[0], new int[0], field);
+        return new SparsePolynomial(new int[]{degree}, new int[]{coefficient}, field);
+    }
+
+    /**
+     * Given a dense polynomial, returns its non zero terms.
+     * @param p a polynomial
+     * @return the sparse representation of p
+     */
+    public static SparsePolynomial of(Polynomial p) {
+        int terms = p.nonZeroTerms();
+        int[] exponents = new int[terms];
+        int[] coefficients = new int[terms];
+        int t = 0;
+        for (int i = 0; i <= p.degree() && t < terms; i++) {
+            int c = p.getCoefficient(i);
+            if (c != 0) {
+                exponents[t] = i;
+                coefficients[t++] = c;
+            }
+        }
+        return new SparsePolynomial(exponents, coefficients, p.getField());
+    }
+
+    /**
+     * Returns true if the sparse representation of the polynomial is worth using for it.
+     * @param p a polynomial
+     * @return true if at most (degree + 1) / SPARSE_DENSITY of its coefficients are non zero
+     */
+    public static boolean isSparse(Polynomial p) {
+        return (long) p.nonZeroTerms() * SPARSE_DENSITY <= p.degree() + 1;
+    }
+
+    public GaloisField getField() {
+        return this.F;
+    }
+
+    /**
+     * Returns the degree of the polynomial.
+     * @return the largest exponent with a non zero coefficient, 0 for the zero polynomial
+     */
+    public int degree() {
+        return exponents.length == 0 ? 0 : exponents[exponents.length - 1];
+    }
+
+    /**
+     * Returns the number of non zero terms.
+     */
+    public int terms() {
+        return exponents.length;
+    }
+
+    /**
+     * Returns the exponent of the $i$th non zero term, in increasing order.
+     */
+    public int exponent(int i) {
+        return exponents[i];
+    }
+
+    /**
+     * Returns the coefficient of the $i$th non zero term, in increasing order of exponents.
+     */
+    public int termCoefficient(int i) {
+        return coefficients[i];
+    }
+
+    /**
+     * Returns the coefficient for the $degree$th term.
+     * @param degree the degree of the term
+     * @return the coefficient in [0, q)
+     */
+    public int getCoefficient(int degree) {
+        int i = Arrays.binarySearch(exponents, degree);
+        return i < 0 ? 0 : coefficients[i];
+    }
+
+    /**
+     * Returns the result of evaluating this polynomial at point x, raising x only by the gaps between exponents.
+     * @param x the point to evaluate at
+     * @return the value of the polynomial at x
+     */
+    public int evaluate(int x) {
+        x = F.mod(x);
+        int res = 0;
+        int power = 1;
+        int previous = 0;
+        for (int t = 0; t < exponents.length; t++) {
+            power = F.multiply(power, ReedSolomon.powerModQ(x, exponents[t] - previous, F));
+            previous = exponents[t];
+            res = F.add(res, F.multiply(coefficients[t], power));
+        }
+        return res;
+    }
+
+    /**
+     * Returns the product of this polynomial and a dense polynomial, only iterating over the non zero terms of this
+     * polynomial, so a monomial times p costs O(deg p).
+     * @param other a dense polynomial over the same field
+     * @return the product, trimmed
+     */
+    public Polynomial multiply(Polynomial other) {
+        if (exponents.length == 0)
+            return Polynomial.ZERO(F);
+        int otherDegree = other.degree();
+        int[] result = new int[degree() + otherDegree + 1];
+        for (int t = 0; t < exponents.length; t++) {
+            int shift = exponents[t];
+            int c = coefficients[t];
+            for (int j = 0; j <= otherDegree; j++) {
+                result[shift + j] = F.add(result[shift + j], F.multiply(c, other.getCoefficient(j)));
+            }
+        }
+        int length = result.length;
+        while (length > 1 && result[length - 1] == 0) {
+            length--;
+        }
+        return Polynomial.trusted(length == result.length ? result : Arrays.copyOf(result, length), F);
+    }
+
+    /**
+     * Returns the product of two sparse polynomials.
+     * @param other a sparse polynomial over the same field
+     * @return the product, holding at most terms() * other.terms() terms
+     */
+    public SparsePolynomial multiply(SparsePolynomial other) {
+        SparsePolynomial res = monomial(0, 0, F);
+        for (int t = 0; t < exponents.length; t++) {
+            int[] shifted = new int[other.exponents.length];
+            int[] scaled = new int[other.exponents.length];
+            for (int j = 0; j < shifted.length; j++) {
+                shifted[j] = other.exponents[j] + exponents[t];
+                scaled[j] = F.multiply(coefficients[t], other.coefficients[j]);
+            }
+            res = res.add(new SparsePolynomial(shifted, scaled, F));
+        }
+        return res;
+    }
+
+    /**
+     * Returns the sum of two sparse polynomials, merging their terms by exponent.
+     * @param other a sparse polynomial over the same field
+     * @return the sum, without terms which cancelled out
+     */
+    public SparsePolynomial add(SparsePolynomial other) {
+        int[] resExponents = new int[exponents.length + other.exponents.length];
+        int[] resCoefficients = new int[resExponents.length];
+        int i = 0, j = 0, t = 0;
+        while (i < exponents.length || j < other.exponents.length) {
+            int exponent, c;
+            if (j == other.exponents.length || (i < exponents.length && exponents[i] < other.exponents[j])) {
+                exponent = exponents[i];
+                c = coefficients[i++];
+            } else if (i == exponents.length || other.exponents[j] < exponents[i]) {
+                exponent = other.exponents[j];
+                c = other.coefficients[j++];
+            } else {
+                exponent = exponents[i];
+                c = F.add(coefficients[i++], other.coefficients[j++]);
+            }
+            if (c != 0) {
+                resExponents[t] = exponent;
+                resCoefficients[t++] = c;
+            }
+        }
+        return new SparsePolynomial(Arrays.copyOf(resExponents, t), Arrays.copyOf(resCoefficients, t), F);
+    }
+
+    /**
+     * Returns the dense representation of this polynomial.
+     */
+    public Polynomial toPolynomial() {
+        int[] dense = new int[degree() + 1];
+        for (int t = 0; t < exponents.length; t++) {
+            dense[exponents[t]] = coefficients[t];
+        }
+        return Polynomial.trusted(dense, F);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        SparsePolynomial that = (SparsePolynomial) other;
+        return F.equals(that.F) && Arrays.equals(exponents, that.exponents)
+                && Arrays.equals(coefficients, that.coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * F.hashCode() + Arrays.hashCode(exponents)) + Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public String toString() {
+        return toPolynomial().toString();
+    }
+}
@@ -0,0 +1,37 @@
+import Code.GaloisField;
+import Code.RSCodec;
+import Code.ShardedFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShardTool {
+
+    private static void usage() {
+        System.out.println("Usage:");
+        System.out.println("  encode <file> <output dir> <prime> <n> <k> [checksum block symbols]");
+        System.out.println("  decode <output file> <shard file>...");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 6 && args[0].equals("encode")) {
+            GaloisField field = new GaloisField(Integer.parseInt(args[3]));
+            RSCodec codec = new RSCodec(field, Integer.parseInt(args[4]), Integer.parseInt(args[5]));
+            int blockSymbols = args.length >= 7 ? Integer.parseInt(args[6]) : 0;
+            List<Path> shards = ShardedFile.encode(Path.of(args[1]), Path.of(args[2]), codec,
+                    ShardedFile.DEFAULT_WINDOW, blockSymbols);
+            System.out.println("Wrote " + shards.size() + " shards to " + args[2]);
+        } else if (args.length >= 3 && args[0].equals("decode")) {
+            List<Path> shards = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                shards.add(Path.of(args[i]));
+            }
+            ShardedFile.decode(shards, Path.of(args[1]));
+            System.out.println("Rebuilt " + args[1]);
+        } else {
+            usage();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package Tests;
+
+import Code.CodecMetrics;
+import Code.Histogram;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecMetricsTest {
+
+    CodecMetrics metrics = new CodecMetrics();
+
+    @Test
+    void decodeOutcomes() {
+        metrics.recordDecode(0);
+        metrics.recordDecode(2);
+        metrics.recordDecode(3);
+        metrics.recordDecode(-1);
+        metrics.recordClean(10);
+        metrics.recordEncode(5);
+        assertEquals(5, metrics.getEncodes());
+        assertEquals(14, metrics.getDecodes());
+        assertEquals(11, metrics.getCleanWords());
+        assertEquals(2, metrics.getCorrectedWords());
+        assertEquals(1, metrics.getFailedWords());
+        assertEquals(5, metrics.getCorrectedSymbols());
+        assertEquals(2.5, metrics.getMeanErrorsPerCorrectedWord());
+        assertEquals(3, metrics.getMaxErrorsPerWord());
+
+        metrics.reset();
+        assertEquals(0, metrics.getDecodes());
+        assertEquals(0, metrics.getMaxErrorsPerWord());
+    }
+
+    @Test
+    void stages() {
+        metrics.recordStage(CodecMetrics.Stage.ELIMINATION, 1000);
+        metrics.recordStage(CodecMetrics.Stage.ELIMINATION, 3000);
+        assertEquals(2, metrics.getStageCounts().get("ELIMINATION"));
+        assertEquals(0, metrics.getStageCounts().get("SETUP"));
+        assertEquals(2000.0, metrics.getStageMeanNanos().get("ELIMINATION"));
+        assertEquals(3000, metrics.getStageMaxNanos().get("ELIMINATION"));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500.0, histogram.getMean());
+        assertEquals(1000000, histogram.getMax());
+        // Buckets are accurate to within ~3%
+        assertEquals(500000, histogram.valueAtPercentile(50), 500000 * 0.04);
+        assertEquals(990000, histogram.valueAtPercentile(99), 990000 * 0.04);
+        assertEquals(1000000, histogram.valueAtPercentile(100));
+        // Small values are exact
+        Histogram small = new Histogram();
+        small.record(3);
+        small.record(7);
+        assertEquals(3, small.valueAtPercentile(50));
+        assertEquals(7, small.valueAtPercentile(100));
+        assertEquals(0, new Histogram().valueAtPercentile(50));
+    }
+
+    @Test
+    void registersAsMXBean() throws Exception {
+        ObjectName name = new ObjectName("Tests:type=CodecMetrics");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        metrics.register(name);
+        try {
+            metrics.recordDecode(1);
+            assertEquals(1L, server.getAttribute(name, "CorrectedWords"));
+            assertNotNull(server.getAttribute(name, "StageP99Nanos"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
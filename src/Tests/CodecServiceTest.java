@@ -0,0 +1,96 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecServiceTest {
+
+    GaloisField F = new GaloisField(929);
+
+    @Test
+    void batchedEncodeDecode() throws Exception {
+        try (CodecService service = new CodecService(16, 1, TimeUnit.MILLISECONDS)) {
+            RSCodec codec = service.codec(F, 10, 4);
+            assertSame(codec, service.codec(F, 10, 4));
+            Random random = new Random(3);
+            List<int[]> messages = new ArrayList<>();
+            List<CompletableFuture<int[]>> codewords = new ArrayList<>();
+            // 100 requests fill 6 batches, the last 4 wait for the deadline
+            for (int w = 0; w < 100; w++) {
+                int[] message = random.ints(4, 0, 929).toArray();
+                messages.add(message);
+                codewords.add(service.encode(F, 10, 4, message));
+            }
+            List<CompletableFuture<int[]>> decoded = new ArrayList<>();
+            for (int w = 0; w < 100; w++) {
+                int[] codeword = codewords.get(w).get(10, TimeUnit.SECONDS);
+                int[] expected = new int[10];
+                codec.encode(messages.get(w), expected);
+                assertArrayEquals(expected, codeword);
+                // every other word gets errors in 3 positions
+                if (w % 2 == 1) {
+                    for (int e = 0; e < 3; e++) {
+                        codeword[(w + 3 * e) % 10] = F.add(codeword[(w + 3 * e) % 10], 1 + e);
+                    }
+                }
+                decoded.add(service.decode(codec, codeword));
+            }
+            for (int w = 0; w < 100; w++) {
+                assertArrayEquals(messages.get(w), decoded.get(w).get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void largePrime() throws Exception {
+        // batches are encoded and checked in stripes, whose accumulators must be reduced after every product
+        GaloisField large = new GaloisField(2147483647);
+        try (CodecService service = new CodecService(8, 1, TimeUnit.MILLISECONDS)) {
+            RSCodec codec = service.codec(large, 10, 6);
+            Random random = new Random(8);
+            List<int[]> messages = new ArrayList<>();
+            List<CompletableFuture<int[]>> codewords = new ArrayList<>();
+            for (int w = 0; w < 32; w++) {
+                int[] message = random.ints(6, 0, 2147483647).toArray();
+                messages.add(message);
+                codewords.add(service.encode(large, 10, 6, message));
+            }
+            List<CompletableFuture<int[]>> decoded = new ArrayList<>();
+            for (int w = 0; w < 32; w++) {
+                int[] codeword = codewords.get(w).get(10, TimeUnit.SECONDS);
+                int[] expected = new int[10];
+                codec.encode(messages.get(w), expected);
+                assertArrayEquals(expected, codeword);
+                if (w % 4 == 0)
+                    codeword[w % 10] = large.add(codeword[w % 10], 1);
+                decoded.add(service.decode(codec, codeword));
+            }
+            for (int w = 0; w < 32; w++) {
+                assertArrayEquals(messages.get(w), decoded.get(w).get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void undecodableWord() throws Exception {
+        try (CodecService service = new CodecService()) {
+            int[] received = service.encode(F, 7, 3, new int[]{1, 2, 3}).get(10, TimeUnit.SECONDS);
+            received[0] = F.add(received[0], 1);
+            received[1] = F.add(received[1], 1);
+            received[2] = F.add(received[2], 1);
+            CompletableFuture<int[]> decoded = service.decode(F, 7, 3, received);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> decoded.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof ArithmeticException);
+            assertThrows(IllegalArgumentException.class, () -> service.encode(F, 7, 3, new int[]{1, 2}));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecSnapshotTest {
+
+    GaloisField F929 = new GaloisField(929);
+    GaloisField F257 = new GaloisField(257);
+
+    @Test
+    void roundTrip() throws IOException {
+        RSCodec consecutive = new RSCodec(F929, 12, 4);
+        RSCodec coset = new RSCodec(EvaluationPoints.coset(F257, 3, 16), 8);
+        Path path = Files.createTempFile("codecs", ".snap");
+        CodecSnapshot.write(path, List.of(consecutive, coset));
+
+        CodecSnapshot snapshot = CodecSnapshot.load(path);
+        assertEquals(2, snapshot.size());
+        RSCodec restored = snapshot.codec(F929, 12, 4);
+        assertNotNull(restored);
+        assertArrayEquals(consecutive.generatorMatrix(), restored.generatorMatrix());
+        RSCodec restoredCoset = snapshot.codec(coset.getEvaluationPoints(), 8);
+        assertNotNull(restoredCoset);
+        assertEquals(coset.getEvaluationPoints(), restoredCoset.getEvaluationPoints());
+        assertEquals(EvaluationPoints.Kind.COSET, restoredCoset.getEvaluationPoints().kind());
+        assertNull(snapshot.codec(F929, 12, 5));
+        assertNull(snapshot.codec(EvaluationPoints.consecutive(F257, 16), 8));
+
+        int[] data = {5, 100, 928, 0};
+        int[] expected = new int[12];
+        int[] actual = new int[12];
+        consecutive.encode(data, expected);
+        restored.encode(data, actual);
+        assertArrayEquals(expected, actual);
+        actual[1] = 17;
+        int[] decoded = new int[4];
+        assertEquals(1, restored.decode(actual, decoded));
+        assertArrayEquals(data, decoded);
+
+        Polynomial generator = ReedSolomon.computeGeneratorPolynomial(F929, 12, 4);
+        int primitive = ReedSolomon.findPrimitiveElement(F257);
+        snapshot.install();
+        assertEquals(generator, ReedSolomon.computeGeneratorPolynomial(F929, 12, 4));
+        assertEquals(primitive, ReedSolomon.findPrimitiveElement(F257));
+        assertEquals(2, snapshot.codecs().size());
+    }
+
+    @Test
+    void corruptSnapshot() throws IOException {
+        Path path = Files.createTempFile("codecs", ".snap");
+        CodecSnapshot.write(path, List.of(new RSCodec(F929, 12, 4)));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 5] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> CodecSnapshot.load(path));
+
+        Files.write(path, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> CodecSnapshot.load(path));
+    }
+}
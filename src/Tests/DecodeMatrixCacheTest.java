@@ -0,0 +1,46 @@
+package Tests;
+
+import Code.DecodeMatrixCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeMatrixCacheTest {
+
+    BitSet mask(int... bits) {
+        BitSet mask = new BitSet();
+        for (int bit : bits) {
+            mask.set(bit);
+        }
+        return mask;
+    }
+
+    @Test
+    void leastRecentlyUsedEviction() {
+        DecodeMatrixCache cache = new DecodeMatrixCache(2);
+        int[][] a = {{1}}, b = {{2}}, c = {{3}};
+        cache.put(mask(0, 1), a);
+        cache.put(mask(0, 2), b);
+        assertSame(a, cache.get(mask(0, 1)));
+        // {0, 2} is now the least recently used
+        cache.put(mask(1, 2), c);
+        assertNull(cache.get(mask(0, 2)));
+        assertSame(a, cache.get(mask(0, 1)));
+        assertSame(c, cache.get(mask(1, 2)));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void keysAreCopied() {
+        DecodeMatrixCache cache = new DecodeMatrixCache(4);
+        BitSet key = mask(3);
+        cache.put(key, new int[][]{{1}});
+        key.set(4);
+        assertNotNull(cache.get(mask(3)));
+        assertThrows(IllegalArgumentException.class, () -> new DecodeMatrixCache(0));
+    }
+}
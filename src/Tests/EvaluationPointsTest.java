@@ -0,0 +1,80 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationPointsTest {
+
+    GaloisField F = new GaloisField(257);
+
+    @Test
+    void pointSets() {
+        assertArrayEquals(new int[]{0, 1, 2, 3}, EvaluationPoints.consecutive(F, 4).toArray());
+        assertArrayEquals(new int[]{255, 256, 0}, EvaluationPoints.consecutive(F, -2, 3).toArray());
+        assertArrayEquals(new int[]{1, 3, 9, 27}, EvaluationPoints.powers(F, 3, 4).toArray());
+
+        // the subgroup of order 16 of GF257 is generated by 3^16
+        EvaluationPoints coset = EvaluationPoints.coset(F, 5, 16);
+        assertEquals(EvaluationPoints.Kind.COSET, coset.kind());
+        assertEquals(16, coset.size());
+        assertEquals(1, ReedSolomon.powerModQ(coset.generator(), 16, F));
+        assertEquals(16, Arrays.stream(coset.toArray()).distinct().count());
+        for (int i = 0; i < 16; i++) {
+            assertEquals(F.multiply(5, ReedSolomon.powerModQ(coset.generator(), i, F)), coset.point(i));
+        }
+        assertEquals(3, coset.indexOf(coset.point(3)));
+        assertEquals(-1, coset.indexOf(0));
+
+        EvaluationPoints arbitrary = EvaluationPoints.of(F, 7, 100, -1);
+        assertArrayEquals(new int[]{7, 100, 256}, arbitrary.toArray());
+
+        assertThrows(IllegalArgumentException.class, () -> EvaluationPoints.consecutive(F, 258));
+        // 16 has order 4 modulo 257
+        assertThrows(IllegalArgumentException.class, () -> EvaluationPoints.powers(F, 16, 5));
+        assertEquals(4, EvaluationPoints.powers(F, 16, 4).size());
+        // distinctness is checked without computing the order of 7, which is 2^31 - 2
+        GaloisField large = new GaloisField(2147483647);
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> EvaluationPoints.powers(large, 7, 64));
+        assertThrows(IllegalArgumentException.class, () -> EvaluationPoints.coset(F, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> EvaluationPoints.of(F, 1, 2, 258));
+    }
+
+    @Test
+    void powerTable() {
+        EvaluationPoints points = EvaluationPoints.of(F, 2, 3);
+        int[][] table = points.powerTable(8);
+        assertArrayEquals(new int[]{1, 2, 4, 8, 16, 32, 64, 128, 256}, table[0]);
+        assertEquals(F.multiply(81, 81), table[1][8]);
+        assertSame(table, points.powerTable(5));
+    }
+
+    @Test
+    void codecOverPointSets() {
+        List<EvaluationPoints> sets = List.of(
+                EvaluationPoints.powers(F, 3, 12),
+                EvaluationPoints.coset(F, 3, 16),
+                EvaluationPoints.of(F, 200, 17, 5, 99, 31, 250, 0, 64, 128, 1, 2, 3));
+        int[] msg = {9, 8, 7, 6};
+        for (EvaluationPoints points : sets) {
+            RSCodec codec = new RSCodec(points, 4);
+            assertSame(points, codec.getEvaluationPoints());
+            int n = points.size();
+            int[] codeword = new int[n];
+            codec.encode(msg, codeword);
+            assertArrayEquals(msg, Arrays.copyOf(codeword, 4));
+            for (int i = 0; i < codec.maxErrors(); i++) {
+                codeword[2 * i + 1] = F.add(codeword[2 * i + 1], 1 + i);
+            }
+            int[] decoded = new int[4];
+            assertEquals(codec.maxErrors(), codec.decode(codeword, decoded));
+            assertArrayEquals(msg, decoded);
+        }
+        assertEquals(new RSCodec(F, 12, 4).getEvaluationPoints(), EvaluationPoints.consecutive(F, 12));
+    }
+}
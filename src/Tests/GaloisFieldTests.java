@@ -75,6 +75,29 @@ public class GaloisFieldTests {
         assertArrayEquals(expected, GF7.gaussianElimination(mat, sol));
     }
 
+    @Test
+    void invertMatrix() {
+        int[][] mat = {{3, 4, 6}, {0, 1, 5}, {2, 1, 2}};
+        int[][] inverse = GF7.invertMatrix(mat);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                int sum = 0;
+                for (int m = 0; m < 3; m++) {
+                    sum = GF7.add(sum, GF7.multiply(mat[i][m], inverse[m][j]));
+                }
+                assertEquals(i == j ? 1 : 0, sum);
+            }
+        }
+        assertThrows(ArithmeticException.class, () -> GF7.invertMatrix(new int[][]{{1, 2}, {2, 4}}));
+    }
+
+    @Test
+    void testRank() {
+        assertEquals(2, GF7.rank(new int[][]{{1, 2, 3}, {2, 4, 6}, {0, 1, 1}}));
+        assertEquals(1, GF7.rank(new int[][]{{1, 2}, {3, 6}}));
+        assertEquals(0, GF7.rank(new int[0][]));
+    }
+
     @Test
     void testEquals() {
         assertEquals(GF7, new GaloisField(7));
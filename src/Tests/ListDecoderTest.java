@@ -0,0 +1,88 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListDecoderTest {
+
+    GaloisField F = new GaloisField(257);
+    Random random = new Random(11);
+
+    int[] corrupt(int[] symbols, int errors) {
+        int[] received = symbols.clone();
+        int[] positions = random.ints(0, symbols.length).distinct().limit(errors).toArray();
+        for (int i : positions) {
+            received[i] = F.add(received[i], 1 + random.nextInt(256));
+        }
+        return received;
+    }
+
+    @Test
+    void hasseDerivative() {
+        // Q = x^2 y + 3y^2, Q(x + 2, y + 5) has x y coefficient 2 * 2 * 1 = 4 and y coefficient 4 + 2 * 3 * 5 = 34
+        BivariatePolynomial Q = new BivariatePolynomial(new int[][]{{}, {0, 0, 1}, {3}}, F);
+        assertEquals(F.add(20, 75), Q.evaluate(2, 5));
+        assertEquals(4, Q.hasseDerivative(1, 1, 2, 5));
+        assertEquals(34, Q.hasseDerivative(0, 1, 2, 5));
+        assertEquals(3, Q.hasseDerivative(0, 2, 2, 5));
+        assertEquals(0, Q.hasseDerivative(3, 0, 2, 5));
+        assertEquals(4, Q.weightedDegree(2));
+    }
+
+    @Test
+    void yRoots() {
+        // Q = (y - (1 + 2x)) (y - (5 + x)) has exactly these two roots of degree < 2
+        Polynomial f = new Polynomial(new int[]{1, 2}, F), g = new Polynomial(new int[]{5, 1}, F);
+        Polynomial sum = f.add(g), product = f.multiply(g);
+        int[][] coeffs = {product.getCoefficients(), new Polynomial(new int[]{0}, F).subtract(sum).getCoefficients(),
+                {1}};
+        BivariatePolynomial Q = new BivariatePolynomial(coeffs, F);
+        assertTrue(Q.substitute(f).equals(Polynomial.ZERO(F)));
+        ListDecoder decoder = new ListDecoder(F, new int[]{0, 1, 2, 3}, 2, 1);
+        List<Polynomial> roots = decoder.yRoots(Q);
+        assertEquals(2, roots.size());
+        assertTrue(f.in(roots));
+        assertTrue(g.in(roots));
+    }
+
+    @Test
+    void beyondUniqueRadius() {
+        int n = 40, k = 5;
+        int[] points = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = i;
+        }
+        ListDecoder decoder = new ListDecoder(F, points, k);
+        assertTrue(decoder.radius() > (n - k) / 2);
+        assertTrue(ListDecoder.radius(n, k, decoder.getMultiplicity()) >= ListDecoder.radius(n, k, 1));
+
+        int[] msg = {12, 200, 3, 0, 77};
+        Polynomial m = new Polynomial(msg, F);
+        int[] symbols = new int[n];
+        for (int i = 0; i < n; i++) {
+            symbols[i] = m.evaluatePolynomial(i);
+        }
+        int[] received = corrupt(symbols, decoder.radius());
+        List<Polynomial> candidates = ReedSolomon.listDecoder(new Polynomial(received, F), k);
+        assertFalse(candidates.isEmpty());
+        assertTrue(m.in(candidates));
+        assertNull(ReedSolomon.uniqueDecoder(new Polynomial(received, F), k));
+    }
+
+    @Test
+    void codecListDecode() {
+        RSCodec codec = new RSCodec(F, 30, 6);
+        int[] data = {1, 2, 3, 4, 5, 6}, codeword = new int[30];
+        codec.encode(data, codeword);
+        int errors = ListDecoder.radius(30, 6, ListDecoder.bestMultiplicity(30, 6));
+        assertTrue(errors > codec.maxErrors());
+        List<int[]> candidates = codec.listDecode(corrupt(codeword, errors));
+        assertTrue(candidates.stream().anyMatch(c -> java.util.Arrays.equals(c, data)));
+        assertThrows(IllegalArgumentException.class, () -> new ListDecoder(F, new int[]{0, 1, 2}, 1, 1));
+    }
+}
@@ -0,0 +1,68 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocallyRepairableCodeTest {
+
+    GaloisField GF929 = new GaloisField(929);
+    // 12 data symbols in 3 groups of 4, 3 local parities and 2 global parities
+    LocallyRepairableCode lrc = new LocallyRepairableCode(GF929, 12, 3, 2);
+    int[] msg = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 928};
+
+    @Test
+    void encode() {
+        assertEquals(17, lrc.length());
+        int[] codeword = new int[17];
+        lrc.encode(msg, codeword);
+        assertArrayEquals(msg, Arrays.copyOf(codeword, 12));
+        assertEquals(10, codeword[12]);
+        assertEquals(26, codeword[13]);
+        assertEquals((9 + 10 + 11 + 928) % 929, codeword[14]);
+        int[] global = new int[14];
+        lrc.getGlobalCodec().encode(msg, global);
+        assertArrayEquals(Arrays.copyOfRange(global, 12, 14), Arrays.copyOfRange(codeword, 15, 17));
+
+        assertArrayEquals(new int[]{4, 6, 7, 13}, lrc.repairSet(5));
+        assertArrayEquals(new int[]{8, 9, 10, 11}, lrc.repairSet(14));
+        assertEquals(12, lrc.repairSet(16).length);
+        assertThrows(IllegalArgumentException.class, () -> new LocallyRepairableCode(GF929, 10, 6, 2));
+    }
+
+    @Test
+    void reconstruct() {
+        int[] codeword = new int[17];
+        lrc.encode(msg, codeword);
+
+        // one loss per group and a global parity, all data repaired locally
+        int[] damaged = codeword.clone();
+        boolean[] present = new boolean[17];
+        Arrays.fill(present, true);
+        for (int i : new int[]{1, 13, 10, 16}) {
+            damaged[i] = 0;
+            present[i] = false;
+        }
+        assertEquals(3, lrc.reconstruct(damaged, present));
+        assertArrayEquals(codeword, damaged);
+
+        // three losses in one group are solved from its local parity and the two global parities
+        damaged = codeword.clone();
+        Arrays.fill(present, true);
+        for (int i : new int[]{4, 5, 6, 11}) {
+            damaged[i] = 0;
+            present[i] = false;
+        }
+        assertEquals(1, lrc.reconstruct(damaged, present));
+        assertArrayEquals(codeword, damaged);
+
+        Arrays.fill(present, true);
+        for (int i : new int[]{0, 1, 2, 3}) {
+            present[i] = false;
+        }
+        assertThrows(IllegalArgumentException.class, () -> lrc.reconstruct(codeword.clone(), present));
+    }
+}
@@ -0,0 +1,81 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutablePolynomialTest {
+
+    GaloisField F = new GaloisField(929);
+
+    @Test
+    void multiplyAndDivide() {
+        MutablePolynomial a = new MutablePolynomial(F, 4).set(new int[]{3, 0, 7}, 0, 3);
+        MutablePolynomial b = new MutablePolynomial(F, 4).set(new int[]{-1, 1}, 0, 2);
+        MutablePolynomial product = new MutablePolynomial(F, 1).multiply(a, b);
+        assertEquals(new Polynomial(new int[]{3, 0, 7}, F).multiply(new Polynomial(new int[]{-1, 1}, F)),
+                product.toPolynomial());
+
+        MutablePolynomial quotient = new MutablePolynomial(F, 1);
+        product.setCoefficient(0, product.getCoefficient(0) + 5).divide(b, quotient);
+        assertEquals(a.toPolynomial(), quotient.toPolynomial());
+        assertEquals(0, product.degree());
+        assertEquals(5, product.getCoefficient(0));
+    }
+
+    @Test
+    void linearFactors() {
+        MutablePolynomial p = new MutablePolynomial(F, 1).setConstant(1);
+        int[] roots = {2, 5, 11, 900};
+        for (int root : roots) {
+            p.multiplyByLinear(root);
+        }
+        assertEquals(ReedSolomon.findPolynomialFromRoots(roots, F), p.toPolynomial());
+        for (int root : roots) {
+            assertEquals(0, p.evaluate(root));
+        }
+        assertEquals(0, p.divideByLinear(900));
+        assertEquals(3, p.degree());
+        assertEquals(F.multiply(F.multiply(F.subtract(7, 2), F.subtract(7, 5)), F.subtract(7, 11)), p.evaluate(7));
+    }
+
+    @Test
+    void lagrangeInterpolation() {
+        int[] msg = {17, 4, 0, 928, 51};
+        Polynomial expected = new Polynomial(msg, F);
+        int[][] coordinates = new int[msg.length][];
+        for (int i = 0; i < msg.length; i++) {
+            int x = 3 * i + 1;
+            coordinates[i] = new int[]{x, expected.evaluatePolynomial(x)};
+        }
+        assertArrayEquals(msg, Interpolation.lagrangeInterpolation(coordinates, F));
+    }
+
+    @Test
+    void arenaReusesPolynomials() {
+        PolynomialArena arena = PolynomialArena.get();
+        int mark = arena.mark();
+        MutablePolynomial first = arena.allocate(F, 8);
+        arena.release(mark);
+        assertSame(first, arena.allocate(F, 8));
+        arena.release(mark);
+
+        RSCodec codec = new RSCodec(F, 20, 10);
+        int[] data = new int[10], codeword = new int[20], decoded = new int[10];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 37 * i + 3;
+        }
+        codec.encode(data, codeword);
+        codeword[2] = F.add(codeword[2], 1);
+        codeword[15] = F.add(codeword[15], 8);
+        assertEquals(2, codec.decode(codeword, decoded));
+        int pooled = arena.pooled();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(2, codec.decode(codeword, decoded));
+        }
+        assertEquals(pooled, arena.pooled());
+        assertEquals(mark, arena.mark());
+        assertArrayEquals(data, decoded);
+    }
+}
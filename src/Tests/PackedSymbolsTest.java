@@ -0,0 +1,74 @@
+package Tests;
+
+import Code.GaloisField;
+import Code.PackedSymbols;
+import Code.RSCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedSymbolsTest {
+
+    @Test
+    void laneArithmetic() {
+        Random random = new Random(9);
+        for (int p : new int[]{2, 7, 127, 257, 32749}) {
+            GaloisField F = new GaloisField(p);
+            PackedSymbols packed = new PackedSymbols(F);
+            int lanes = packed.lanes();
+            assertEquals(p <= 7 ? 8 : p <= 127 ? 4 : 2, lanes);
+            int[] a = random.ints(lanes, 0, p).toArray();
+            int[] b = random.ints(lanes, 0, p).toArray();
+            long[] pa = new long[1];
+            long[] pb = new long[1];
+            packed.pack(a, lanes, pa);
+            packed.pack(b, lanes, pb);
+            int c = random.nextInt(p);
+            long sum = packed.add(pa[0], pb[0]);
+            long product = packed.multiply(pa[0], c);
+            // the largest products, as many as the lanes hold
+            long[] max = new long[1];
+            packed.pack(IntStream.generate(() -> p - 1).limit(lanes).toArray(), lanes, max);
+            long[] acc = new long[1];
+            for (int i = 0; i < packed.accumulationLimit(); i++) {
+                packed.multiplyAccumulate(acc, max, p - 1, 1);
+            }
+            packed.reduce(acc, 1);
+            int full = (int) ((long) packed.accumulationLimit() * (p - 1) * (p - 1) % p);
+            for (int i = 0; i < lanes; i++) {
+                assertEquals(F.add(a[i], b[i]), packed.get(sum, i));
+                assertEquals(F.multiply(a[i], c), packed.get(product, i));
+                assertEquals(full, packed.get(acc[0], i));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PackedSymbols(new GaloisField(65537)));
+    }
+
+    @Test
+    void packedEncodeStriped() {
+        Random random = new Random(4);
+        for (int p : new int[]{7, 31, 127}) {
+            GaloisField F = new GaloisField(p);
+            RSCodec codec = new RSCodec(F, 7, 3);
+            int length = 37;
+            int[][] data = new int[3][length];
+            for (int[] row : data) {
+                for (int i = 0; i < length; i++) {
+                    row[i] = random.nextInt(p);
+                }
+            }
+            int[][] parity = new int[4][length];
+            codec.encodeStriped(data, parity, length);
+            int[] codeword = new int[7];
+            for (int i = 0; i < length; i++) {
+                codec.encode(new int[]{data[0][i], data[1][i], data[2][i]}, codeword);
+                for (int r = 0; r < 4; r++) {
+                    assertEquals(codeword[3 + r], parity[r][i]);
+                }
+            }
+        }
+    }
+}
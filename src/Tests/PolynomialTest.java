@@ -10,7 +10,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.nio.ReadOnlyBufferException;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 
 class PolynomialTest {
 
@@ -53,6 +56,16 @@ class PolynomialTest {
         assertThrows(IllegalArgumentException.class, () -> a.mod(zero));
     }
 
+    @Test
+    void div() {
+        // (x + 2)(x + 3) with leading zeros divided by x + 2 is x + 3
+        Polynomial dividend = new Polynomial(new int[]{6, 5, 1, 0, 0}, F7);
+        Polynomial quotient = dividend.div(new Polynomial(new int[]{2, 1}, F7));
+        assertArrayEquals(new int[]{3, 1}, quotient.getCoefficients());
+        assertEquals(1, quotient.degree());
+        assertArrayEquals(zero.getCoefficients(), one.div(a).getCoefficients());
+    }
+
 
     @Test
     void evaluatePolynomial() {
@@ -86,4 +99,31 @@ class PolynomialTest {
         assertFalse(a.in(arr));
         assertTrue(one.in(arr));
     }
-}
\ No newline at end of file
+
+    @Test
+    void normalised() {
+        int[] coeffs = {-1, 9, 14};
+        Polynomial p = new Polynomial(coeffs, F7);
+        assertArrayEquals(new int[]{6, 2, 0}, p.getCoefficients());
+        // Changing the given array or the returned copy doesn't change the polynomial
+        coeffs[0] = 3;
+        p.getCoefficients()[1] = 5;
+        assertEquals(6, p.getCoefficient(0));
+        assertEquals(2, p.getCoefficient(1));
+        // Leading zeros are kept for symbol vectors
+        assertEquals(2, p.degree());
+        assertThrows(ReadOnlyBufferException.class, () -> p.coefficientView().put(0, 1));
+        assertEquals(6, p.coefficientView().get(0));
+    }
+
+    @Test
+    void hashCodeMatchesEquals() {
+        Polynomial c = new Polynomial(new int[]{12, 9, 0, 10}, F7);
+        assertEquals(b, c);
+        assertEquals(b.hashCode(), c.hashCode());
+        assertEquals(b.hashCode(), b.hashCode());
+        HashSet<Polynomial> set = new HashSet<>(List.of(a, b, one));
+        assertTrue(set.contains(c));
+        assertFalse(set.contains(zero));
+    }
+}
@@ -0,0 +1,97 @@
+package Tests;
+
+import Code.GaloisField;
+import Code.ProductCode;
+import Code.RSCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCodeTest {
+
+    GaloisField F = new GaloisField(257);
+    // (16, 12) rows and (12, 8) columns, each correcting 2 errors
+    ProductCode code = new ProductCode(new RSCodec(F, 16, 12), new RSCodec(F, 12, 8));
+    int[][] data = new int[8][12];
+    int[][] codeword = new int[12][16];
+
+    ProductCodeTest() {
+        Random random = new Random(6);
+        for (int[] row : data) {
+            for (int c = 0; c < row.length; c++) {
+                row[c] = random.nextInt(257);
+            }
+        }
+        code.encode(data, codeword);
+    }
+
+    int[][] copy(int[][] grid) {
+        int[][] res = new int[grid.length][];
+        for (int r = 0; r < grid.length; r++) {
+            res[r] = grid[r].clone();
+        }
+        return res;
+    }
+
+    @Test
+    void encode() {
+        assertEquals(192, code.length());
+        assertEquals(96, code.dimension());
+        for (int r = 0; r < 12; r++) {
+            assertTrue(code.getRowCode().isCodeword(codeword[r]));
+        }
+        for (int c = 0; c < 16; c++) {
+            int[] column = new int[12];
+            for (int r = 0; r < 12; r++) {
+                column[r] = codeword[r][c];
+            }
+            assertTrue(code.getColumnCode().isCodeword(column));
+        }
+        for (int r = 0; r < 8; r++) {
+            assertArrayEquals(data[r], Arrays.copyOf(codeword[r], 12));
+        }
+    }
+
+    @Test
+    void burstErrors() {
+        // a whole corrupted row and a whole corrupted column, 27 symbols
+        int[][] received = copy(codeword);
+        for (int c = 0; c < 16; c++) {
+            received[7][c] = F.add(received[7][c], 1 + c);
+        }
+        for (int r = 0; r < 12; r++) {
+            received[r][9] = F.add(received[r][9], 100);
+        }
+        int[][] decoded = new int[8][12];
+        assertEquals(27, code.decode(received, decoded));
+        assertArrayEquals(data, decoded);
+    }
+
+    @Test
+    void iterativeDecoding() {
+        // rows 0 to 4 have 3 errors each in columns 0 to 2: the rows fail, there are too many of them to be erased in
+        // the columns, and the columns have 5 errors each, so only the second row pass with the failed columns as
+        // erasures corrects them
+        int[][] received = copy(codeword);
+        for (int r = 0; r < 5; r++) {
+            for (int c = 0; c < 3; c++) {
+                received[r][c] = F.add(received[r][c], 1 + r + c);
+            }
+        }
+        int[][] decoded = new int[8][12];
+        assertEquals(-1, code.decode(received, decoded, 1));
+        assertEquals(15, code.decode(received, decoded));
+        assertArrayEquals(data, decoded);
+
+        // 5 x 5 errors are beyond the erasure capacity of both codes
+        for (int r = 0; r < 5; r++) {
+            for (int c = 0; c < 5; c++) {
+                received[r][c] = F.add(codeword[r][c], 1 + r + c);
+            }
+        }
+        assertEquals(-1, code.decode(received, decoded));
+    }
+}
@@ -0,0 +1,286 @@
+package Tests;
+
+import Code.GaloisField;
+import Code.Polynomial;
+import Code.RSCodec;
+import Code.ReedSolomon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RSCodecTest {
+
+    GaloisField GF929 = new GaloisField(929);
+    RSCodec codec;
+    int[] msg;
+
+    @BeforeEach
+    void setUp() {
+        codec = new RSCodec(GF929, 12, 4);
+        msg = new int[]{3, 2, 1, 42};
+    }
+
+    @Test
+    void encode() {
+        int[] codeword = new int[12];
+        codec.encode(msg, codeword);
+        // Same code as the interpolation encoder
+        Polynomial expected = ReedSolomon.RSEncoder_L(new Polynomial(msg, GF929), 12).get(1);
+        assertEquals(expected, new Polynomial(codeword, GF929));
+        assertTrue(codec.isCodeword(codeword));
+    }
+
+    @Test
+    void decode() {
+        int[] codeword = new int[12];
+        codec.encode(msg, codeword);
+        int[] decoded = new int[4];
+        assertEquals(0, codec.decode(codeword, decoded));
+        assertArrayEquals(msg, decoded);
+
+        // (n-k)/2 = 4 errors can be corrected
+        codeword[0] = 5;
+        codeword[3] = 17;
+        codeword[7] = 0;
+        codeword[11] = 928;
+        assertEquals(4, codec.decode(codeword, decoded));
+        assertArrayEquals(msg, decoded);
+
+        codeword[5] = GF929.add(codeword[5], 1);
+        assertEquals(-1, codec.decode(codeword, decoded));
+    }
+
+    @Test
+    void encodeByteBuffers() {
+        RSCodec codec257 = new RSCodec(new GaloisField(257), 7, 4);
+        ByteBuffer[] data = new ByteBuffer[4];
+        ByteBuffer[] parity = new ByteBuffer[3];
+        for (int i = 0; i < 4; i++) {
+            data[i] = ByteBuffer.allocateDirect(5000);
+            for (int j = 0; j < 5000; j++) {
+                data[i].put(j, (byte) (i * 50 + j * 7));
+            }
+        }
+        for (int r = 0; r < 3; r++) {
+            parity[r] = ByteBuffer.allocateDirect(10000);
+        }
+        codec257.encode(data, parity);
+
+        // Every column matches the codeword of the column's bytes
+        int[] column = new int[4];
+        int[] codeword = new int[7];
+        for (int j = 0; j < 5000; j++) {
+            for (int i = 0; i < 4; i++) {
+                column[i] = data[i].get(j) & 0xFF;
+            }
+            codec257.encode(column, codeword);
+            for (int r = 0; r < 3; r++) {
+                assertEquals(codeword[4 + r], parity[r].getShort(2 * j));
+            }
+        }
+        assertEquals(0, parity[0].position());
+
+        // A single error per column is corrected in place
+        data[2].put(10, (byte) 99);
+        parity[1].put(41, (byte) 1);
+        data[0].put(4500, (byte) 1);
+        assertEquals(3, codec257.decode(data, parity));
+        assertEquals((byte) (2 * 50 + 10 * 7), data[2].get(10));
+        assertEquals(0, codec257.decode(data, parity));
+
+        assertThrows(IllegalArgumentException.class, () -> codec257.encode(data, new ByteBuffer[]{parity[0]}));
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(data, parity));
+    }
+
+    @Test
+    void encodeStriped() {
+        int length = RSCodec.STRIPE + 100;
+        int[][] data = new int[4][length];
+        Random random = new Random(3);
+        for (int[] row : data) {
+            for (int j = 0; j < length; j++) {
+                row[j] = random.nextInt(929);
+            }
+        }
+        int[][] parity = new int[8][length];
+        codec.encodeStriped(data, parity, length);
+
+        int[] column = new int[4];
+        int[] codeword = new int[12];
+        for (int j = 0; j < length; j += 37) {
+            for (int i = 0; i < 4; i++) {
+                column[i] = data[i][j];
+            }
+            codec.encode(column, codeword);
+            for (int r = 0; r < 8; r++) {
+                assertEquals(codeword[4 + r], parity[r][j]);
+            }
+        }
+    }
+
+    @Test
+    void largePrimeStripes() {
+        // a single product fits in the accumulator on top of a reduced value, every other one needs a reduction
+        for (int p : new int[]{2147483647, 1999999973}) {
+            GaloisField F = new GaloisField(p);
+            RSCodec large = new RSCodec(F, 10, 6);
+            assertEquals(1, F.accumulationLimit());
+            int length = 200;
+            Random random = new Random(p);
+            int[][] data = new int[6][length];
+            for (int[] row : data) {
+                for (int j = 0; j < length; j++) {
+                    row[j] = random.nextInt(p);
+                }
+            }
+            int[][] parity = new int[4][length];
+            large.encodeStriped(data, parity, length);
+            int[] column = new int[6];
+            int[] codeword = new int[10];
+            for (int j = 0; j < length; j++) {
+                for (int i = 0; i < 6; i++) {
+                    column[i] = data[i][j];
+                }
+                large.encode(column, codeword);
+                for (int r = 0; r < 4; r++) {
+                    assertEquals(codeword[6 + r], parity[r][j]);
+                }
+            }
+
+            ByteBuffer[] dataShards = new ByteBuffer[6];
+            ByteBuffer[] parityShards = new ByteBuffer[4];
+            for (int i = 0; i < 6; i++) {
+                dataShards[i] = ByteBuffer.allocate(length);
+                random.nextBytes(dataShards[i].array());
+            }
+            for (int r = 0; r < 4; r++) {
+                parityShards[r] = ByteBuffer.allocate(length * large.symbolBytes());
+            }
+            large.encode(dataShards, parityShards);
+            for (int j = 0; j < length; j++) {
+                for (int i = 0; i < 6; i++) {
+                    column[i] = dataShards[i].get(j) & 0xFF;
+                }
+                large.encode(column, codeword);
+                for (int r = 0; r < 4; r++) {
+                    assertEquals(codeword[6 + r], parityShards[r].getInt(4 * j));
+                }
+            }
+            assertEquals(0, large.decode(dataShards, parityShards));
+
+            // three data shards rebuilt from three data and three parity shards, whose symbols span the whole field
+            ByteBuffer[] shards = new ByteBuffer[10];
+            boolean[] present = new boolean[10];
+            for (int i = 0; i < 10; i++) {
+                present[i] = i > 2 && i != 9;
+                ByteBuffer shard = i < 6 ? dataShards[i] : parityShards[i - 6];
+                shards[i] = present[i] ? shard.duplicate() : i < 6 ? ByteBuffer.allocate(length) : null;
+            }
+            large.reconstruct(shards, present);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(dataShards[i], shards[i]);
+            }
+        }
+    }
+
+    @Test
+    void reconstruct() {
+        int[] codeword = new int[12];
+        codec.encode(msg, codeword);
+        int[] damaged = codeword.clone();
+        boolean[] present = new boolean[12];
+        for (int i : new int[]{1, 5, 9, 10}) {
+            present[i] = true;
+        }
+        for (int i = 0; i < 12; i++) {
+            if (!present[i])
+                damaged[i] = 0;
+        }
+        codec.reconstruct(damaged, present);
+        assertArrayEquals(codeword, damaged);
+    }
+
+    @Test
+    void reconstructionMatrix() {
+        int[][] generator = codec.generatorMatrix();
+        int[] survivors = {2, 4, 7, 11};
+        int[][] inverse = codec.reconstructionMatrix(survivors);
+        // inverse * G[survivors] = I
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                int sum = 0;
+                for (int s = 0; s < 4; s++) {
+                    sum = GF929.add(sum, GF929.multiply(inverse[i][s], generator[survivors[s]][j]));
+                }
+                assertEquals(i == j ? 1 : 0, sum);
+            }
+        }
+        assertSame(inverse, codec.reconstructionMatrix(new int[]{2, 4, 7, 11}));
+        assertEquals(1, codec.getDecodeMatrixCache().getHits());
+        assertEquals(1, codec.getDecodeMatrixCache().size());
+        assertThrows(IllegalArgumentException.class, () -> codec.reconstructionMatrix(new int[]{2, 2, 7, 11}));
+    }
+
+    @Test
+    void symbolBytes() {
+        assertEquals(1, new RSCodec(new GaloisField(7), 6, 2).symbolBytes());
+        assertEquals(2, codec.symbolBytes());
+        assertEquals(3, new RSCodec(new GaloisField(65537), 6, 2).symbolBytes());
+    }
+
+    @Test
+    void updateParity() {
+        int[] codeword = new int[12];
+        codec.encode(msg, codeword);
+        int[] parity = Arrays.copyOfRange(codeword, 4, 12);
+        codec.updateParity(2, msg[2], 500, parity);
+        msg[2] = 500;
+        codec.encode(msg, codeword);
+        assertArrayEquals(Arrays.copyOfRange(codeword, 4, 12), parity);
+        assertThrows(IllegalArgumentException.class, () -> codec.updateParity(4, 0, 1, parity));
+
+        RSCodec codec257 = new RSCodec(new GaloisField(257), 7, 4);
+        ByteBuffer[] data = new ByteBuffer[4];
+        ByteBuffer[] parityShards = new ByteBuffer[3];
+        ByteBuffer[] expected = new ByteBuffer[3];
+        Random random = new Random(5);
+        for (int i = 0; i < 4; i++) {
+            byte[] bytes = new byte[5000];
+            random.nextBytes(bytes);
+            data[i] = ByteBuffer.wrap(bytes);
+        }
+        for (int r = 0; r < 3; r++) {
+            parityShards[r] = ByteBuffer.allocate(10000);
+            expected[r] = ByteBuffer.allocate(10000);
+        }
+        codec257.encode(data, parityShards);
+
+        // overwrite bytes [4000, 4200) of shard 1, only those bytes and the matching parity symbols are read
+        ByteBuffer oldBytes = ByteBuffer.allocate(200).put(data[1].slice(4000, 200)).flip();
+        ByteBuffer newBytes = ByteBuffer.allocate(200);
+        for (int j = 0; j < 200; j++) {
+            newBytes.put(j, (byte) (j * 13));
+            data[1].put(4000 + j, (byte) (j * 13));
+        }
+        ByteBuffer[] paritySlices = new ByteBuffer[3];
+        for (int r = 0; r < 3; r++) {
+            paritySlices[r] = parityShards[r].slice(8000, 400);
+        }
+        codec257.updateParity(1, oldBytes, newBytes, paritySlices);
+        codec257.encode(data, expected);
+        for (int r = 0; r < 3; r++) {
+            assertEquals(expected[r], parityShards[r]);
+        }
+    }
+
+    @Test
+    void invalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new RSCodec(GF929, 4, 4));
+        assertThrows(IllegalArgumentException.class, () -> new RSCodec(new GaloisField(7), 8, 2));
+    }
+}
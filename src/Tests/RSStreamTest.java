@@ -0,0 +1,85 @@
+package Tests;
+
+import Code.GaloisField;
+import Code.RSCodec;
+import Code.RSInputStream;
+import Code.RSOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RSStreamTest {
+
+    RSCodec codec = new RSCodec(new GaloisField(257), 10, 6);
+    byte[] data;
+
+    @BeforeEach
+    void setUp() {
+        data = new byte[1000];
+        new Random(42).nextBytes(data);
+    }
+
+    byte[] encode(byte[] bytes, int depth) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (RSOutputStream out = new RSOutputStream(encoded, codec, depth)) {
+            int half = bytes.length / 2;
+            out.write(bytes, 0, half);
+            out.write(bytes, half, bytes.length - half);
+        }
+        return encoded.toByteArray();
+    }
+
+    byte[] decode(byte[] encoded, int depth) throws IOException {
+        try (RSInputStream in = new RSInputStream(new ByteArrayInputStream(encoded), codec, depth)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        assertArrayEquals(data, decode(encode(data, 3), 3));
+        assertArrayEquals(new byte[0], decode(encode(new byte[0], 3), 3));
+        // exactly one full block of data followed by a block holding only the end marker
+        byte[] fullBlock = new byte[18];
+        System.arraycopy(data, 0, fullBlock, 0, 18);
+        assertArrayEquals(fullBlock, decode(encode(fullBlock, 3), 3));
+    }
+
+    @Test
+    void burstErrors() throws IOException {
+        int depth = 4;
+        byte[] encoded = encode(data, depth);
+        // Each codeword corrects 2 symbols, interleaving 4 codewords of 2 byte symbols spreads a burst of 16 bytes
+        // over at most 2 symbols of each codeword
+        for (int i = 100; i < 116; i++) {
+            encoded[i] ^= 0x5A;
+        }
+        assertArrayEquals(data, decode(encoded, depth));
+
+        for (int i = 100; i < 150; i++) {
+            encoded[i] ^= 0x5A;
+        }
+        assertThrows(IOException.class, () -> decode(encoded, depth));
+    }
+
+    @Test
+    void truncated() throws IOException {
+        byte[] encoded = encode(data, 2);
+        byte[] truncated = new byte[encoded.length - 1];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> decode(truncated, 2));
+    }
+
+    @Test
+    void smallField() {
+        RSCodec GF7Codec = new RSCodec(new GaloisField(7), 6, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> new RSOutputStream(new ByteArrayOutputStream(), GF7Codec, 1));
+    }
+}
@@ -0,0 +1,96 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RootFinderTest {
+
+    Random random = new Random(11);
+
+    /**
+     * Returns c * (x - roots[0]) * ... * (x - roots[r-1]) * rest.
+     */
+    Polynomial withRoots(int[] roots, Polynomial rest, GaloisField F) {
+        Polynomial res = rest;
+        for (int root : roots) {
+            res = res.multiply(new Polynomial(new int[]{-root, 1}, F));
+        }
+        return res;
+    }
+
+    @Test
+    void consecutiveRoots() {
+        GaloisField F = new GaloisField(257);
+        Polynomial p = withRoots(new int[]{3, 40, 41, 200}, new Polynomial(new int[]{5, 0, 1}, F), F);
+        int[] roots = new int[8];
+        assertEquals(4, RootFinder.consecutiveRoots(p, 0, 257, roots));
+        assertArrayEquals(new int[]{3, 40, 41, 200}, Arrays.copyOf(roots, 4));
+        // only points in [start, start + count) are searched, and at most roots.length are written
+        assertEquals(2, RootFinder.consecutiveRoots(p, 10, 100, roots));
+        assertArrayEquals(new int[]{40, 41}, Arrays.copyOf(roots, 2));
+        assertEquals(1, RootFinder.consecutiveRoots(p, 0, 257, new int[1]));
+
+        for (int trial = 0; trial < 20; trial++) {
+            int[] coeffs = new int[1 + random.nextInt(8)];
+            for (int i = 0; i < coeffs.length; i++) {
+                coeffs[i] = random.nextInt(257);
+            }
+            Polynomial q = new Polynomial(coeffs, F);
+            int expected = 0;
+            for (int x = 0; x < 257; x++) {
+                if (q.evaluatePolynomial(x) == 0)
+                    expected++;
+            }
+            assertEquals(expected, RootFinder.consecutiveRoots(q, 0, 257, new int[257]));
+        }
+    }
+
+    @Test
+    void powerRoots() {
+        GaloisField F = new GaloisField(257);
+        int alpha = 3; // primitive modulo 257
+        int[] exponents = {0, 7, 100};
+        int[] points = new int[exponents.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = ReedSolomon.powerModQ(alpha, exponents[i], F);
+        }
+        Polynomial p = withRoots(points, new Polynomial(new int[]{2}, F), F);
+        int[] roots = new int[3];
+        assertEquals(3, RootFinder.powerRoots(p, alpha, 256, roots));
+        assertArrayEquals(exponents, roots);
+    }
+
+    @Test
+    void findRootsInLargeField() {
+        GaloisField F = new GaloisField(65537);
+        int[] expected = {0, 1, 12345, 40000, 65536};
+        // x^2 - 3 has no roots since 3 is not a square modulo 65537
+        Polynomial p = withRoots(expected, new Polynomial(new int[]{-3, 0, 1}, F), F);
+        // a repeated root is only reported once
+        p = p.multiply(new Polynomial(new int[]{-12345, 1}, F));
+        int[] roots = new int[p.degree()];
+        assertEquals(5, RootFinder.findRoots(p, roots));
+        assertArrayEquals(expected, Arrays.copyOf(roots, 5));
+
+        assertEquals(0, RootFinder.findRoots(new Polynomial(new int[]{-3, 0, 1}, F), roots));
+        assertThrows(IllegalArgumentException.class, () -> RootFinder.findRoots(Polynomial.ZERO(F), roots));
+    }
+
+    @Test
+    void findRootsInHugeField() {
+        GaloisField F = new GaloisField(2147483647);
+        int[] expected = {2, 1_000_000_007, 2147483646};
+        Polynomial p = withRoots(expected, new Polynomial(new int[]{7, 1}, F), F);
+        int[] roots = new int[p.degree()];
+        // a field scan or linear time inverses would take minutes
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> assertEquals(4, RootFinder.findRoots(p, roots)));
+        assertArrayEquals(new int[]{2, 1_000_000_007, 2147483640, 2147483646}, roots);
+        assertEquals(1, F.multiply(123456789, F.modInverse(123456789)));
+    }
+}
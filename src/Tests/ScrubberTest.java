@@ -0,0 +1,98 @@
+package Tests;
+
+import Code.GaloisField;
+import Code.RSCodec;
+import Code.Scrubber;
+import Code.ShardedFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrubberTest {
+
+    RSCodec codec = new RSCodec(new GaloisField(257), 6, 4);
+    Path dir;
+    Path input;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("scrub");
+        input = dir.resolve("input.bin");
+        byte[] data = new byte[10_001];
+        new Random(11).nextBytes(data);
+        Files.write(input, data);
+    }
+
+    static List<byte[]> contents(List<Path> shards) throws IOException {
+        List<byte[]> res = new ArrayList<>();
+        for (Path shard : shards) {
+            res.add(Files.readAllBytes(shard));
+        }
+        return res;
+    }
+
+    static void flip(Path shard, long position) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(shard.toFile(), "rw")) {
+            file.seek(ShardedFile.HEADER_BYTES + position);
+            int b = file.read();
+            file.seek(ShardedFile.HEADER_BYTES + position);
+            file.write(b ^ 0x5A);
+        }
+    }
+
+    @Test
+    void repairsParityMismatches() throws Exception {
+        List<Path> shards = ShardedFile.encode(input, dir, codec, 1000);
+        List<byte[]> original = contents(shards);
+        flip(shards.get(1), 10);
+        flip(shards.get(1), 2000);
+        flip(shards.get(5), 2 * 1500 + 1);
+
+        Scrubber scrubber = new Scrubber(shards, 0, 512);
+        assertTrue(scrubber.scrub());
+        assertEquals(5, scrubber.getStripesScanned());
+        assertEquals(3, scrubber.getStripesRepaired());
+        assertEquals(3, scrubber.getSymbolsRepaired());
+        assertEquals(1.0, scrubber.getProgress());
+        for (int i = 0; i < 6; i++) {
+            assertArrayEquals(original.get(i), Files.readAllBytes(shards.get(i)));
+        }
+
+        // two errors in one column are beyond the one error the code corrects
+        flip(shards.get(0), 7);
+        flip(shards.get(2), 7);
+        assertFalse(new Scrubber(shards, 0, 512).scrub());
+    }
+
+    @Test
+    void repairsCorruptBlocks() throws Exception {
+        List<Path> shards = ShardedFile.encode(input, dir, codec, 1000, 128);
+        List<byte[]> original = contents(shards);
+        // two shards of the same block are rebuilt as erasures
+        for (int b = 0; b < 20; b++) {
+            flip(shards.get(2), 300 + b);
+        }
+        flip(shards.get(4), 2 * 260);
+
+        long start = System.nanoTime();
+        Scrubber scrubber = new Scrubber(shards, 100_000);
+        assertTrue(scrubber.scrub());
+        // 4 data shards of 2501 bytes and 2 parity shards of 5002 bytes, 20008 bytes at 100kB/s
+        assertTrue(System.nanoTime() - start >= 150_000_000L);
+        assertEquals(20_008, scrubber.getBytesScanned());
+        assertEquals(20, scrubber.getStripesScanned());
+        assertEquals(1, scrubber.getStripesRepaired());
+        for (int i = 0; i < 6; i++) {
+            assertArrayEquals(original.get(i), Files.readAllBytes(shards.get(i)));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardPipelineTest {
+
+    RSCodec codec = new RSCodec(new GaloisField(257), 6, 4);
+
+    /**
+     * Collects everything it receives, requesting one item at a time once started.
+     */
+    static class Collector<T> implements Flow.Subscriber<T> {
+        final List<T> items = new CopyOnWriteArrayList<>();
+        final CompletableFuture<List<T>> done = new CompletableFuture<>();
+        Flow.Subscription subscription;
+        final boolean started;
+
+        Collector(boolean started) {
+            this.started = started;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (started)
+                subscription.request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(items);
+        }
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        byte[] data = new byte[10_007];
+        new Random(5).nextBytes(data);
+        Flow.Processor<ByteBuffer, ShardPipeline.Stripe> encoder = ShardPipeline.encoder(codec, 100);
+        Collector<ShardPipeline.Stripe> stripes = new Collector<>(true);
+        encoder.subscribe(stripes);
+        try (SubmissionPublisher<ByteBuffer> source = new SubmissionPublisher<>()) {
+            source.subscribe(encoder);
+            // uneven writes which don't line up with the stripes
+            for (int from = 0; from < data.length; from += 333) {
+                source.submit(ByteBuffer.wrap(data, from, Math.min(333, data.length - from)));
+            }
+        }
+        List<ShardPipeline.Stripe> encoded = stripes.done.get(10, TimeUnit.SECONDS);
+        assertEquals(26, encoded.size());
+        assertEquals(7, encoded.get(25).length);
+        // byte j of a stripe sits in data shard j % 4 at position j / 4
+        ShardPipeline.Stripe second = encoded.get(1);
+        assertEquals(data[400 + 5], second.shards[1].get(1));
+        assertEquals(data[400 + 399], second.shards[3].get(99));
+
+        Flow.Processor<ShardPipeline.Stripe, ByteBuffer> decoder = ShardPipeline.decoder(codec, 100);
+        Collector<ByteBuffer> bytes = new Collector<>(true);
+        decoder.subscribe(bytes);
+        try (SubmissionPublisher<ShardPipeline.Stripe> source = new SubmissionPublisher<>()) {
+            source.subscribe(decoder);
+            for (ShardPipeline.Stripe stripe : encoded) {
+                ByteBuffer[] shards = stripe.shards.clone();
+                // lose two shards of every stripe
+                shards[(int) (stripe.index % 6)] = null;
+                shards[(int) ((stripe.index + 3) % 6)] = null;
+                source.submit(new ShardPipeline.Stripe(stripe.index, stripe.length, shards));
+            }
+        }
+        ByteBuffer decoded = ByteBuffer.allocate(data.length);
+        for (ByteBuffer buffer : bytes.done.get(10, TimeUnit.SECONDS)) {
+            decoded.put(buffer);
+        }
+        assertArrayEquals(data, decoded.array());
+    }
+
+    @Test
+    void backpressure() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        Flow.Processor<ByteBuffer, ShardPipeline.Stripe> encoder = ShardPipeline.encoder(codec, 10, executor, 2);
+        Collector<ShardPipeline.Stripe> stripes = new Collector<>(false);
+        encoder.subscribe(stripes);
+        AtomicInteger submitted = new AtomicInteger();
+        SubmissionPublisher<ByteBuffer> source = new SubmissionPublisher<>(executor, 2);
+        source.subscribe(encoder);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                source.submit(ByteBuffer.allocate(40));
+                submitted.incrementAndGet();
+            }
+            source.close();
+        });
+        producer.setDaemon(true);
+        producer.start();
+        // the subscriber requests nothing, the producer stalls once the bounded buffers are full
+        int seen = -1;
+        while (seen != submitted.get()) {
+            seen = submitted.get();
+            Thread.sleep(200);
+        }
+        assertTrue(seen < 100, "producer was not throttled, submitted " + seen);
+        stripes.subscription.request(1);
+        assertEquals(1000, stripes.done.get(10, TimeUnit.SECONDS).size());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,87 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardReaderTest {
+
+    RSCodec codec = new RSCodec(new GaloisField(257), 7, 4);
+    ByteBuffer[] shards = new ByteBuffer[7];
+
+    ShardReaderTest() {
+        Random random = new Random(1);
+        ByteBuffer[] data = new ByteBuffer[4];
+        ByteBuffer[] parity = new ByteBuffer[3];
+        for (int i = 0; i < 4; i++) {
+            byte[] bytes = new byte[1000];
+            random.nextBytes(bytes);
+            data[i] = ByteBuffer.wrap(bytes);
+            shards[i] = data[i];
+        }
+        for (int r = 0; r < 3; r++) {
+            parity[r] = ByteBuffer.allocate(2000);
+            shards[4 + r] = parity[r];
+        }
+        codec.encode(data, parity);
+    }
+
+    @Test
+    void hedgedRead() throws Exception {
+        LoopbackShardTransport transport = new LoopbackShardTransport(shards)
+                .setLatency(0, 60_000)
+                .setLatency(2, 60_000)
+                .setLatency(5, 500);
+        try (ShardReader reader = new ShardReader(codec, transport)) {
+            long start = System.nanoTime();
+            ByteBuffer[] data = reader.read(1000);
+            // decoded from the 4 fastest shards without waiting for the slow nodes
+            assertTrue(System.nanoTime() - start < 30_000_000_000L);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(shards[i], data[i]);
+            }
+            // shards 1, 3, 4 and 6 arrive first, the fetches of 0, 2 and 5 are cancelled
+            for (int attempt = 0; attempt < 100 && transport.cancelledFetches() < 3; attempt++) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, transport.cancelledFetches());
+            assertEquals(4, transport.completedFetches());
+        }
+    }
+
+    @Test
+    void unavailableShards() throws Exception {
+        ByteBuffer[] damaged = shards.clone();
+        damaged[1] = null;
+        // a truncated shard is not used
+        damaged[6] = shards[6].slice(0, 1000);
+        LoopbackShardTransport transport = new LoopbackShardTransport(damaged).setDown(4, true).setDown(5, true);
+        try (ShardReader reader = new ShardReader(codec, transport)) {
+            assertThrows(IOException.class, () -> reader.read(1000));
+            transport.setDown(4, false);
+            ByteBuffer[] data = reader.read(1000);
+            assertEquals(shards[1], data[1]);
+        }
+    }
+
+    @Test
+    void blockChecksums() throws Exception {
+        // shard 2 is silently corrupted, its checksums turn it into an erasure
+        ByteBuffer[] damaged = shards.clone();
+        damaged[2] = ByteBuffer.allocate(1000).put(shards[2].duplicate()).flip();
+        damaged[2].put(700, (byte) (damaged[2].get(700) + 1));
+        LoopbackShardTransport transport = new LoopbackShardTransport(damaged).setLatency(6, 500);
+        for (int i = 0; i < 7; i++) {
+            transport.setChecksums(i, BlockChecksums.compute(shards[i], i < 4 ? 1 : 2, 128));
+        }
+        try (ShardReader reader = new ShardReader(codec, transport)) {
+            ByteBuffer[] data = reader.read(1000);
+            assertEquals(shards[2], data[2]);
+        }
+    }
+}
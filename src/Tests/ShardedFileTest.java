@@ -0,0 +1,126 @@
+package Tests;
+
+import Code.BlockChecksums;
+import Code.GaloisField;
+import Code.RSCodec;
+import Code.ShardedFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedFileTest {
+
+    RSCodec codec = new RSCodec(new GaloisField(257), 6, 4);
+    Path dir;
+    Path input;
+    byte[] data;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("shards");
+        input = dir.resolve("input.bin");
+        data = new byte[10_001];
+        new Random(7).nextBytes(data);
+        Files.write(input, data);
+    }
+
+    @Test
+    void encode() throws IOException {
+        List<Path> shards = ShardedFile.encode(input, dir, codec, 1000);
+        assertEquals(6, shards.size());
+        // ceil(10001 / 4) data bytes, or 2 bytes per symbol for parity shards
+        assertEquals(ShardedFile.HEADER_BYTES + 2501, Files.size(shards.get(0)));
+        assertEquals(ShardedFile.HEADER_BYTES + 2 * 2501, Files.size(shards.get(5)));
+
+        Path output = dir.resolve("output.bin");
+        ShardedFile.decode(shards, output, 1000);
+        assertArrayEquals(data, Files.readAllBytes(output));
+    }
+
+    @Test
+    void decodeFromAnyK() throws IOException {
+        List<Path> shards = ShardedFile.encode(input, dir, codec, 1000);
+        Path output = dir.resolve("output.bin");
+
+        List<Path> survivors = new ArrayList<>(shards);
+        survivors.remove(3);
+        survivors.remove(0);
+        ShardedFile.decode(survivors, output, 700);
+        assertArrayEquals(data, Files.readAllBytes(output));
+
+        // A corrupted shard fails its checksum and is treated as missing
+        try (RandomAccessFile file = new RandomAccessFile(survivors.get(1).toFile(), "rw")) {
+            file.seek(ShardedFile.HEADER_BYTES + 100);
+            file.write(42);
+        }
+        assertThrows(IOException.class, () -> ShardedFile.decode(survivors, output));
+        survivors.add(shards.get(0));
+        ShardedFile.decode(survivors, output);
+        assertArrayEquals(data, Files.readAllBytes(output));
+    }
+
+    @Test
+    void blockChecksums() throws IOException {
+        List<Path> shards = ShardedFile.encode(input, dir, codec, 1000, 256);
+        assertTrue(Files.exists(BlockChecksums.pathOf(shards.get(0))));
+        BlockChecksums checksums = BlockChecksums.read(BlockChecksums.pathOf(shards.get(5)));
+        assertEquals(256, checksums.blockSymbols());
+        assertEquals(10, checksums.blocks());
+
+        // four corrupted shards, but no block is corrupted in more than n-k = 2 of them
+        corrupt(shards.get(0), 256 + 3);
+        corrupt(shards.get(2), 256 + 200);
+        corrupt(shards.get(5), 2 * (3 * 256 + 10));
+        corrupt(shards.get(1), 2500);
+        Path output = dir.resolve("output.bin");
+        ShardedFile.decode(shards, output, 1000);
+        assertArrayEquals(data, Files.readAllBytes(output));
+
+        corrupt(shards.get(4), 2 * (256 + 1));
+        assertThrows(IOException.class, () -> ShardedFile.decode(shards, output, 1000));
+    }
+
+    @Test
+    void corruptHeaders() throws IOException {
+        List<Path> shards = ShardedFile.encode(input, dir, codec, 1000);
+        Path output = dir.resolve("output.bin");
+        // the first shard announces another file length, which must not reject the other shards
+        writeHeaderInt(shards.get(0), 28, 1234);
+        // the second shard claims to be shard 3, which must not take the place of the real one
+        writeHeaderInt(shards.get(1), 20, 3);
+        ShardedFile.decode(shards, output, 1000);
+        assertArrayEquals(data, Files.readAllBytes(output));
+
+        // with block checksums, every block of the misplaced shard is valid but its header isn't
+        shards = ShardedFile.encode(input, dir, codec, 1000, 256);
+        writeHeaderInt(shards.get(1), 20, 0);
+        corrupt(shards.get(5), 10);
+        ShardedFile.decode(shards, output, 1000);
+        assertArrayEquals(data, Files.readAllBytes(output));
+    }
+
+    void writeHeaderInt(Path shard, long offset, int value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(shard.toFile(), "rw")) {
+            file.seek(offset);
+            file.writeInt(value);
+        }
+    }
+
+    void corrupt(Path shard, long offset) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(shard.toFile(), "rw")) {
+            file.seek(ShardedFile.HEADER_BYTES + offset);
+            int b = file.read();
+            file.seek(ShardedFile.HEADER_BYTES + offset);
+            file.write(b ^ 0xFF);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortenedCodeTest {
+
+    GaloisField GF929 = new GaloisField(929);
+    RSCodec parent = new RSCodec(GF929, 20, 8);
+    Random random = new Random(3);
+
+    int[] randomMessage(int k) {
+        int[] msg = new int[k];
+        for (int i = 0; i < k; i++) {
+            msg[i] = random.nextInt(929);
+        }
+        return msg;
+    }
+
+    @Test
+    void shortened() {
+        ShortenedCode code = new ShortenedCode(parent, 3);
+        assertEquals(15, code.length());
+        assertEquals(3, code.dimension());
+        assertEquals(6, code.maxErrors());
+
+        int[] msg = {4, 5, 6};
+        int[] codeword = new int[15];
+        code.encode(msg, codeword);
+        // the codeword is the tail of the parent codeword of the zero padded message
+        int[] parentCodeword = new int[20];
+        parent.encode(new int[]{0, 0, 0, 0, 0, 4, 5, 6}, parentCodeword);
+        assertArrayEquals(Arrays.copyOfRange(parentCodeword, 5, 20), codeword);
+
+        for (int i = 0; i < 6; i++) {
+            codeword[2 * i] = GF929.add(codeword[2 * i], 1);
+        }
+        int[] decoded = new int[3];
+        assertEquals(6, code.decode(codeword, decoded));
+        assertArrayEquals(msg, decoded);
+        codeword[1] = GF929.add(codeword[1], 1);
+        assertEquals(-1, code.decode(codeword, decoded));
+    }
+
+    @Test
+    void punctured() {
+        // every payload length shares the parent codec
+        for (int k = 1; k <= 8; k++) {
+            ShortenedCode code = ShortenedCode.of(parent, k + 6, k);
+            assertEquals(k + 6, code.length());
+            assertEquals(3, code.maxErrors());
+            int[] msg = randomMessage(k);
+            int[] codeword = new int[k + 6];
+            code.encode(msg, codeword);
+            assertArrayEquals(msg, Arrays.copyOf(codeword, k));
+
+            int[] received = codeword.clone();
+            received[0] = GF929.add(received[0], 7);
+            received[k + 1] = GF929.add(received[k + 1], 7);
+            received[k + 5] = 0;
+            int[] decoded = new int[k];
+            int corrected = code.decode(received, decoded);
+            assertEquals(codeword[k + 5] == 0 ? 2 : 3, corrected);
+            assertArrayEquals(msg, decoded);
+        }
+        assertThrows(IllegalArgumentException.class, () -> ShortenedCode.of(parent, 21, 8));
+        assertThrows(IllegalArgumentException.class, () -> new ShortenedCode(parent, 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> new ShortenedCode(parent, 9));
+    }
+
+    @Test
+    void erasures() {
+        int[] msg = randomMessage(8);
+        int[] codeword = new int[20];
+        parent.encode(msg, codeword);
+        // 2 errors and 8 erasures: 2 * 2 + 8 <= 12
+        boolean[] present = new boolean[20];
+        Arrays.fill(present, true);
+        for (int i : new int[]{0, 2, 4, 9, 11, 13, 17, 19}) {
+            present[i] = false;
+            codeword[i] = 0;
+        }
+        codeword[1] = GF929.add(codeword[1], 1);
+        codeword[10] = GF929.add(codeword[10], 1);
+        int[] decoded = new int[8];
+        assertEquals(2, parent.decode(codeword, present, decoded));
+        assertArrayEquals(msg, decoded);
+        codeword[12] = GF929.add(codeword[12], 1);
+        assertEquals(-1, parent.decode(codeword, present, decoded));
+
+        ShortenedCode code = new ShortenedCode(parent, 5, 18, 19);
+        int[] shortMsg = randomMessage(5);
+        int[] shortCodeword = new int[code.length()];
+        code.encode(shortMsg, shortCodeword);
+        boolean[] shortPresent = new boolean[code.length()];
+        Arrays.fill(shortPresent, true);
+        for (int i = 0; i < 10; i++) {
+            shortPresent[i] = false;
+        }
+        assertEquals(0, code.decode(shortCodeword, shortPresent, decoded));
+        assertArrayEquals(shortMsg, Arrays.copyOf(decoded, 5));
+    }
+}
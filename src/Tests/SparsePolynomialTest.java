@@ -0,0 +1,75 @@
+package Tests;
+
+import Code.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparsePolynomialTest {
+
+    GaloisField F = new GaloisField(257);
+    Random random = new Random(7);
+
+    Polynomial randomPolynomial(int degree) {
+        int[] coeffs = new int[degree + 1];
+        for (int i = 0; i < coeffs.length; i++) {
+            coeffs[i] = random.nextInt(257);
+        }
+        coeffs[degree] = 1 + random.nextInt(256);
+        return new Polynomial(coeffs, F);
+    }
+
+    @Test
+    void monomials() {
+        SparsePolynomial m = SparsePolynomial.monomial(-3, 5, F);
+        assertEquals(5, m.degree());
+        assertEquals(1, m.terms());
+        assertEquals(254, m.getCoefficient(5));
+        assertEquals(0, m.getCoefficient(4));
+        assertEquals(0, SparsePolynomial.monomial(257, 3, F).terms());
+
+        Polynomial p = randomPolynomial(6);
+        Polynomial shifted = m.multiply(p);
+        assertEquals(11, shifted.degree());
+        for (int i = 0; i <= 6; i++) {
+            assertEquals(F.multiply(254, p.getCoefficient(i)), shifted.getCoefficient(i + 5));
+        }
+        assertEquals(m.toPolynomial().multiply(p), shifted);
+    }
+
+    @Test
+    void sparseArithmetic() {
+        Polynomial dense = new Polynomial(new int[]{1, 0, 0, 0, 0, 0, 0, 0, 256}, F);
+        assertTrue(SparsePolynomial.isSparse(dense));
+        assertFalse(SparsePolynomial.isSparse(randomPolynomial(8)));
+        SparsePolynomial a = SparsePolynomial.of(dense);
+        assertEquals(2, a.terms());
+        assertEquals(dense, a.toPolynomial());
+
+        SparsePolynomial b = SparsePolynomial.monomial(1, 8, F).add(SparsePolynomial.monomial(5, 2, F));
+        assertEquals(a.toPolynomial().multiply(b.toPolynomial()), a.multiply(b).toPolynomial());
+        // x^8 terms cancel
+        SparsePolynomial sum = a.add(b);
+        assertEquals(2, sum.terms());
+        assertEquals(2, sum.degree());
+        assertEquals(dense.evaluatePolynomial(100), a.evaluate(100));
+    }
+
+    @Test
+    void longDivisionMatchesMutable() {
+        for (int trial = 0; trial < 50; trial++) {
+            Polynomial dividend = randomPolynomial(5 + random.nextInt(30));
+            Polynomial divisor = trial % 2 == 0 ? randomPolynomial(1 + random.nextInt(5))
+                    : new Polynomial(new int[]{random.nextInt(257), 0, 0, 0, 0, 0, 0, 1}, F);
+            MutablePolynomial remainder = new MutablePolynomial(F, 1).set(dividend);
+            MutablePolynomial quotient = new MutablePolynomial(F, 1);
+            remainder.divide(new MutablePolynomial(F, 1).set(divisor), quotient);
+
+            assertEquals(quotient.toPolynomial(), dividend.div(divisor));
+            assertEquals(remainder.toPolynomial(), dividend.mod(divisor));
+            assertEquals(dividend, dividend.div(divisor).multiply(divisor).add(dividend.mod(divisor)));
+        }
+    }
+}